@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# 기동 모드별 기동 시간과 첫 요청 지연을 비교한다. 의존성이 캐시되어 있으면 네트워크 없이 돈다.
+# 아직 재어 둔 수치가 없다. fast-startup 프로필이나 CDS 를 배포에 쓰기 전에 대상 장비에서 돌려 jvm 과 비교한다.
+#
+#   scripts/startup-benchmark.sh [반복 횟수]
+#
+# 모드
+#   jvm           기본 실행
+#   lazy          fast-startup 프로필 (lazy-initialization + deferred JPA 리포지토리)
+#   cds           클래스 데이터 공유 아카이브 사용
+#   cds-lazy      cds + fast-startup
+#   aot-cds-lazy  Spring AOT 처리 결과(-Dspring.aot.enabled) + cds + fast-startup
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+WORK="$ROOT/build/startup"
+FAST_STARTUP="--spring.profiles.active=fast-startup"
+
+cd "$ROOT"
+sh ./gradlew --offline -q bootJar -Paot
+
+rm -rf "$WORK"
+mkdir -p "$WORK"
+JAR=$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -1)
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP_JAR="$WORK/app/$(basename "$JAR")"
+
+# CDS 학습 실행: 컨텍스트 refresh 직후 종료하면서 그때까지 로드된 클래스를 아카이브로 남긴다.
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR" > "$WORK/cds-training.log" 2>&1
+java -XX:ArchiveClassesAtExit="$WORK/app-aot.jsa" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR" > "$WORK/cds-aot-training.log" 2>&1
+
+# 프로세스 시작부터 "Started" 로그까지(ms), 그 직후 첫 GET /posts 의 응답 시간(ms)
+measure() {
+    local mode=$1
+    shift
+    local log="$WORK/$mode.log"
+    local start ready first pid
+
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+    until grep -q "Started WondollarApplication" "$log"; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$mode 기동 실패. $log 를 확인하세요." >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    ready=$(date +%s%N)
+    first=$(curl -s -o /dev/null -w '%{time_total}' "http://localhost:$PORT/posts?size=1")
+
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$(( (ready - start) / 1000000 )) $(awk -v t="$first" 'BEGIN { printf "%.1f", t * 1000 }')"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+run() {
+    local mode=$1
+    shift
+    local results="$WORK/$mode.txt"
+    : > "$results"
+    for _ in $(seq "$RUNS"); do
+        measure "$mode" "$@" >> "$results"
+    done
+    printf "%-14s %12s %18s\n" "$mode" "$(cut -d' ' -f1 < "$results" | median)" "$(cut -d' ' -f2 < "$results" | median)"
+}
+
+printf "%-14s %12s %18s\n" "mode" "startup(ms)" "first-request(ms)"
+run jvm java -jar "$APP_JAR"
+run lazy java -jar "$APP_JAR" "$FAST_STARTUP"
+run cds java -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$APP_JAR"
+run cds-lazy java -XX:SharedArchiveFile="$WORK/app.jsa" -jar "$APP_JAR" "$FAST_STARTUP"
+run aot-cds-lazy java -XX:SharedArchiveFile="$WORK/app-aot.jsa" -Dspring.aot.enabled=true -jar "$APP_JAR" "$FAST_STARTUP"
@@ -0,0 +1,51 @@
+package com.wondollar.api.audit;
+
+import com.wondollar.api.config.AuditProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 스레드가 감사 기록 한 건을 남기는 비용을 잰다. 뒤에서는 소비자 스레드가 실제로 gzip 파일에 쓴다.
+ * -prof gc 로 돌리면 요청 스레드 쪽 할당이 없는지도 같이 본다.
+ * ./gradlew jmh -Pjmh.includes=AuditLogBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class AuditLogBenchmark {
+
+    private AuditLog auditLog;
+    private String[] addresses;
+
+    @Setup
+    public void setUp() throws Exception {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(Files.createTempDirectory("audit-bench").toString());
+        auditLog = new AuditLog(properties);
+        auditLog.start();
+
+        addresses = new String[1024];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        auditLog.close();
+        System.out.println("written = " + auditLog.getWritten() + ", dropped = " + auditLog.getDropped());
+    }
+
+    @Benchmark
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        auditLog.record(addresses[random.nextInt(addresses.length)], AuditAction.GET, random.nextLong(1, 1_000_000), 200, 1000L);
+    }
+}
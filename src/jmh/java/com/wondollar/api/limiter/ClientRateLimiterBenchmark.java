@@ -0,0 +1,50 @@
+package com.wondollar.api.limiter;
+
+import com.wondollar.api.config.WriteLimitProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 쓰기 요청 한 건당 제한기 비용을 잰다. 50k req/s 라면 요청당 20µs 예산 중 차지하는 몫을 본다.
+ * ./gradlew jmh -Pjmh.includes=ClientRateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ClientRateLimiterBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int clients;
+
+    private ClientRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        WriteLimitProperties properties = new WriteLimitProperties();
+        properties.setPermitsPerSecond(1_000_000_000);
+        properties.setBurst(1_000_000);
+        limiter = new ClientRateLimiter(properties);
+
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        return limiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(clients)]);
+    }
+
+    @Benchmark
+    public int baseline() {
+        return keys[ThreadLocalRandom.current().nextInt(clients)].length();
+    }
+}
@@ -0,0 +1,115 @@
+package com.wondollar.api.revision;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 수백 번 고친 글의 이력 저장 크기와 리비전 복원 시간을 잰다. PostRevisionService 와 같은 규칙으로 리비전을 만든다.
+ * 저장 크기는 Setup 에서 한 번 출력하고, 복원 시간은 스냅숏에서 차이가 가장 많이 쌓인 리비전 기준이다.
+ * ./gradlew jmh -Pjmh.includes=PostRevisionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostRevisionBenchmark {
+
+    @Param({"500"})
+    private int edits;
+
+    @Param({"20000"})
+    private int contentLength;
+
+    @Param({"1", "16", "64"})
+    private int snapshotInterval;
+
+    private List<String> contents;
+    private List<byte[]> data;
+    private byte[] worstSnapshot;
+    private List<byte[]> worstDeltas;
+    private String previous;
+    private String next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(35);
+        contents = new ArrayList<>(edits + 1);
+        contents.add(randomText(random, contentLength));
+        for (int i = 1; i <= edits; i++) {
+            contents.add(edit(random, contents.get(i - 1), i));
+        }
+
+        data = new ArrayList<>(edits + 1);
+        long stored = 0;
+        long full = 0;
+        for (int revision = 0; revision <= edits; revision++) {
+            byte[] encoded = isSnapshot(revision)
+                    ? RevisionCodec.snapshot(contents.get(revision))
+                    : RevisionCodec.delta(contents.get(revision - 1), contents.get(revision));
+            data.add(encoded);
+            stored += encoded.length;
+            full += contents.get(revision).getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        int worst = worstRevision();
+        int snapshot = worst - worst % snapshotInterval;
+        worstSnapshot = data.get(snapshot);
+        worstDeltas = data.subList(snapshot + 1, worst + 1);
+        previous = contents.get(edits - 1);
+        next = contents.get(edits);
+
+        System.out.printf("%nedits = %d, snapshotInterval = %d, stored = %d bytes, full copies = %d bytes (%.1f%%), longest chain = %d deltas%n",
+                edits, snapshotInterval, stored, full, 100.0 * stored / full, worstDeltas.size());
+    }
+
+    @Benchmark
+    public String reconstructLongestChain() {
+        return RevisionCodec.reconstruct(worstSnapshot, worstDeltas);
+    }
+
+    @Benchmark
+    public byte[] encodeDelta() {
+        return RevisionCodec.delta(previous, next);
+    }
+
+    @Benchmark
+    public byte[] encodeSnapshot() {
+        return RevisionCodec.snapshot(next);
+    }
+
+    private boolean isSnapshot(int revision) {
+        return revision % snapshotInterval == 0;
+    }
+
+    private int worstRevision() {
+        for (int revision = edits; revision > 0; revision--) {
+            if (revision % snapshotInterval == snapshotInterval - 1) {
+                return revision;
+            }
+        }
+        return edits;
+    }
+
+    // 한 번에 한두 문장을 고치거나 덧붙이는 보통의 수정을 흉내 낸다.
+    private static String edit(Random random, String content, int revision) {
+        int from = random.nextInt(content.length());
+        int to = Math.min(content.length(), from + random.nextInt(120));
+        return content.substring(0, from) + "수정한 문장 " + revision + ". " + content.substring(to);
+    }
+
+    private static String randomText(Random random, int length) {
+        String[] words = {"스프링", "트랜잭션", "인덱스", "캐시", "샤드", "query", "latency", "batch"};
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            text.append(words[random.nextInt(words.length)]).append(random.nextInt(100)).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}
@@ -0,0 +1,79 @@
+package com.wondollar.api.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 열린 모델 부하 발생기. 응답을 기다리지 않고 rate 에 맞춘 도착 시각마다 요청을 비동기로 보낸다.
+ * <p>
+ * 서버가 느려져도 다음 도착 시각은 미뤄지지 않는다. maxInFlight 가 차거나 스케줄러가 늦어 요청이 늦게 나가면,
+ * 밀린 요청은 바로 이어서 보내고 지연은 원래 도착 시각부터 잰다.
+ */
+class LoadGenerator {
+
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final Workload workload;
+    private final Random arrivals;
+
+    LoadGenerator(LoadTestOptions options, HttpClient client, Workload workload) {
+        this.options = options;
+        this.client = client;
+        this.workload = workload;
+        this.arrivals = new Random(options.randomSeed() + 1);
+    }
+
+    LoadResult run(Duration duration) throws InterruptedException {
+        LoadResult result = new LoadResult();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / (double) options.rate();
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        double offset = 0;
+        long scheduled = 0;
+        long maxLag = 0;
+
+        while (true) {
+            long intended = start + (long) offset;
+            if (intended - end >= 0) {
+                break;
+            }
+            offset += options.poisson() ? -Math.log(1 - arrivals.nextDouble()) * meanGapNanos : meanGapNanos;
+
+            long now;
+            while ((now = System.nanoTime()) - intended < 0) {
+                LockSupport.parkNanos(intended - now);
+            }
+            maxLag = Math.max(maxLag, now - intended);
+
+            Operation operation = workload.nextOperation();
+            HttpRequest request = workload.request(operation);
+            inFlight.acquire();
+            scheduled++;
+
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        long done = System.nanoTime();
+                        result.record(operation, intended, sent, done, response == null ? -1 : response.statusCode());
+                        inFlight.release();
+                    });
+        }
+
+        if (!inFlight.tryAcquire(options.maxInFlight(), DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            System.err.println("응답을 받지 못한 요청이 남았습니다. inFlight = "
+                    + (options.maxInFlight() - inFlight.availablePermits()));
+        }
+        result.finish(scheduled, maxLag, Duration.ofNanos(System.nanoTime() - start));
+        return result;
+    }
+}
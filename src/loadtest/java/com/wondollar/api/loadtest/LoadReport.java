@@ -0,0 +1,101 @@
+package com.wondollar.api.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 결과를 표로 찍고, 빌드끼리 비교할 수 있게 JSON 으로도 남긴다.
+ */
+class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final LoadResult result;
+
+    LoadReport(LoadTestOptions options, LoadResult result) {
+        this.options = options;
+        this.result = result;
+    }
+
+    void print() {
+        System.out.printf(Locale.ROOT, "%n목표 %d req/s (%s 도착), %ds 동안 %d 건 예약, 처리 %.1f req/s, 오류율 %.4f, 스케줄러 최대 지연 %.2fms%n",
+                options.rate(), options.poisson() ? "포아송" : "일정 간격", options.duration().toSeconds(), result.getScheduled(),
+                result.getThroughput(), result.getErrorRate(), result.getMaxSchedulerLagMillis());
+        System.out.println("지연(ms): latency 는 도착 시각 기준(coordinated omission 보정), service 는 실제 전송 시각 기준");
+        System.out.printf(Locale.ROOT, "%-7s %9s %7s %7s %7s | %9s %9s %9s %9s %9s | %9s %9s%n",
+                "op", "count", "4xx", "5xx", "fail",
+                "p50", "p90", "p99", "p99.9", "max", "svc p50", "svc p99");
+        for (Operation operation : Operation.values()) {
+            printRow(operation.name().toLowerCase(), result.get(operation));
+        }
+        printRow("total", result.getTotal());
+    }
+
+    void write(Path file) throws IOException {
+        List<String> operations = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            operations.add("\"" + operation.name().toLowerCase() + "\":" + json(result.get(operation)));
+        }
+
+        String json = String.format(Locale.ROOT,
+                "{\"rate\":%d,\"poisson\":%s,\"durationSeconds\":%d,\"mix\":\"%s\",\"scheduled\":%d,"
+                        + "\"throughput\":%.2f,\"errorRate\":%.6f,\"maxSchedulerLagMillis\":%.3f,"
+                        + "\"total\":%s,\"operations\":{%s}}%n",
+                options.rate(), options.poisson(), options.duration().toSeconds(), options.mix(), result.getScheduled(),
+                result.getThroughput(), result.getErrorRate(), result.getMaxSchedulerLagMillis(),
+                json(result.getTotal()), String.join(",", operations));
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, json);
+    }
+
+    /**
+     * 합격 기준을 넘은 항목. 비어 있으면 통과다.
+     */
+    List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        double p99 = result.getTotal().getLatency().getPercentileMillis(99);
+        if (options.maxP99Millis() > 0 && p99 > options.maxP99Millis()) {
+            violations.add(String.format(Locale.ROOT, "p99 %.2fms > %.2fms", p99, options.maxP99Millis()));
+        }
+        if (options.maxErrorRate() > 0 && result.getErrorRate() > options.maxErrorRate()) {
+            violations.add(String.format(Locale.ROOT, "오류율 %.4f > %.4f", result.getErrorRate(), options.maxErrorRate()));
+        }
+        return violations;
+    }
+
+    private void printRow(String name, OperationStats stats) {
+        if (stats.getCount() == 0) {
+            return;
+        }
+        LatencyHistogram latency = stats.getLatency();
+        System.out.printf(Locale.ROOT, "%-7s %9d %7d %7d %7d | %9.2f %9.2f %9.2f %9.2f %9.2f | %9.2f %9.2f%n",
+                name, stats.getCount(), stats.getClientErrors(), stats.getServerErrors(), stats.getFailures(),
+                latency.getPercentileMillis(50), latency.getPercentileMillis(90), latency.getPercentileMillis(99),
+                latency.getPercentileMillis(99.9), latency.getMaxMillis(),
+                stats.getServiceTime().getPercentileMillis(50), stats.getServiceTime().getPercentileMillis(99));
+    }
+
+    private static String json(OperationStats stats) {
+        return String.format(Locale.ROOT,
+                "{\"count\":%d,\"success\":%d,\"clientErrors\":%d,\"serverErrors\":%d,\"failures\":%d,"
+                        + "\"latency\":%s,\"serviceTime\":%s}",
+                stats.getCount(), stats.getSuccess(), stats.getClientErrors(), stats.getServerErrors(), stats.getFailures(),
+                json(stats.getLatency()), json(stats.getServiceTime()));
+    }
+
+    private static String json(LatencyHistogram histogram) {
+        StringBuilder json = new StringBuilder("{");
+        for (double percentile : PERCENTILES) {
+            json.append(String.format(Locale.ROOT, "\"p%s\":%.3f,",
+                    percentile == (long) percentile ? Long.toString((long) percentile) : Double.toString(percentile),
+                    histogram.getPercentileMillis(percentile)));
+        }
+        return json.append(String.format(Locale.ROOT, "\"mean\":%.3f,\"max\":%.3f}",
+                histogram.getMeanMillis(), histogram.getMaxMillis())).toString();
+    }
+}
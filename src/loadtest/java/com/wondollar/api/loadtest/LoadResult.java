@@ -0,0 +1,64 @@
+package com.wondollar.api.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 한 번의 측정 구간 결과. 종류별 결과와 전체 결과를 함께 모은다.
+ */
+public class LoadResult {
+
+    private final Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+    private final OperationStats total = new OperationStats();
+    private long scheduled;
+    private long maxSchedulerLagNanos;
+    private Duration elapsed = Duration.ZERO;
+
+    public LoadResult() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationStats());
+        }
+    }
+
+    void record(Operation operation, long intendedNanos, long sentNanos, long doneNanos, int status) {
+        operations.get(operation).record(intendedNanos, sentNanos, doneNanos, status);
+        total.record(intendedNanos, sentNanos, doneNanos, status);
+    }
+
+    void finish(long scheduled, long maxSchedulerLagNanos, Duration elapsed) {
+        this.scheduled = scheduled;
+        this.maxSchedulerLagNanos = maxSchedulerLagNanos;
+        this.elapsed = elapsed;
+    }
+
+    public OperationStats get(Operation operation) {
+        return operations.get(operation);
+    }
+
+    public OperationStats getTotal() {
+        return total;
+    }
+
+    // 도착 시각이 측정 구간 안에 있던 요청 수
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    // 스케줄러가 도착 시각보다 가장 늦게 요청을 보낸 정도. 크면 부하 발생기 자체가 병목이다.
+    public double getMaxSchedulerLagMillis() {
+        return maxSchedulerLagNanos / 1_000_000.0;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    public double getThroughput() {
+        return elapsed.isZero() ? 0 : total.getCount() * 1000.0 / elapsed.toMillis();
+    }
+
+    public double getErrorRate() {
+        return total.getCount() == 0 ? 0 : (double) total.getErrors() / total.getCount();
+    }
+}
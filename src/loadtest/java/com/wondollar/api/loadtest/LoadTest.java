@@ -0,0 +1,131 @@
+package com.wondollar.api.loadtest;
+
+import com.wondollar.api.WondollarApplication;
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.repository.ShardedPostRepository;
+import com.wondollar.api.request.PostCreate;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.service.PostService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 앱을 내장 H2 로 띄우고 글을 미리 넣은 뒤, 섞인 요청을 열린 모델로 보내 처리량과 지연 분포를 잰다.
+ * 네트워크 없이 로컬에서만 돌며, 합격 기준을 주면 넘었을 때 1 로 끝나 빌드를 막을 수 있다.
+ * <pre>
+ * ./gradlew --offline loadTest -Ploadtest.rate=2000 -Ploadtest.mix=get=70,list=20,write=10 -Ploadtest.max-p99-millis=50
+ * </pre>
+ * 설정은 {@link LoadTestOptions} 를 본다.
+ */
+public class LoadTest {
+
+    private static final int SEED_PAGE_SIZE = 2000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.fromSystemProperties();
+        List<String> violations;
+
+        try (ConfigurableApplicationContext context = start(options, args)) {
+            long[] ids = seed(context, options);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2, runnable -> {
+                Thread thread = new Thread(runnable, "loadtest-client");
+                thread.setDaemon(true);
+                return thread;
+            });
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(executor)
+                    .build();
+
+            Workload workload = new Workload(options, URI.create("http://localhost:" + port), ids, Workload.deletableOf(options, ids.length));
+            LoadGenerator generator = new LoadGenerator(options, client, workload);
+
+            System.out.printf("워밍업 %ds%n", options.warmup().toSeconds());
+            generator.run(options.warmup());
+            System.out.printf("측정 %ds%n", options.duration().toSeconds());
+            LoadResult result = generator.run(options.duration());
+            executor.shutdownNow();
+
+            LoadReport report = new LoadReport(options, result);
+            report.print();
+            report.write(options.output().resolve("result.json"));
+            violations = report.violations();
+        }
+
+        if (!violations.isEmpty()) {
+            System.err.println("합격 기준을 넘었습니다. " + String.join(", ", violations));
+            System.exit(1);
+        }
+    }
+
+    // args 는 스프링 설정으로 넘어간다. 예: --args='--wondollar.shard.count=4'
+    // H2 세션별 파싱된 쿼리 캐시(기본 8개)를 늘려 반복되는 쿼리의 재파싱을 줄인다. URL 이 아닌 풀 설정으로 넘겨야
+    // perf 프로필의 같은 설정과 부딪히지 않고 프로필 값이 이긴다.
+    private static ConfigurableApplicationContext start(LoadTestOptions options, String[] args) {
+        return new SpringApplicationBuilder(WondollarApplication.class)
+                .profiles(options.profiles().isBlank() ? new String[0] : options.profiles().split(","))
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest",
+                        "wondollar.shard.url-template=jdbc:h2:mem:loadtest-shard-%d",
+                        "spring.datasource.hikari.data-source-properties.QUERY_CACHE_SIZE=128",
+                        "wondollar.shard.worker-id=0",
+                        "wondollar.write-limit.enabled=" + options.writeLimit(),
+                        "wondollar.audit.directory=" + options.output().resolve("audit"),
+                        "wondollar.archive.directory=" + options.output().resolve("archive"),
+                        "logging.level.root=WARN")
+                .run(args);
+    }
+
+    // 요청과 같은 경로로 넣으면 시간이 오래 걸리므로 PostService 를 직접 부르고, 넣은 글의 id 를 키셋으로 읽어 온다.
+    private static long[] seed(ConfigurableApplicationContext context, LoadTestOptions options) {
+        PostService postService = context.getBean(PostService.class);
+        ShardedPostRepository shardedPostRepository = context.getBean(ShardedPostRepository.class);
+        Random random = new Random(options.randomSeed() + 2);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < options.seedPosts(); i++) {
+            postService.write(PostCreate.builder()
+                    .title(Workload.title(random))
+                    .content(Workload.content(random, options.contentBytes()))
+                    .tags(List.of(Workload.tag(random, options.tags()), Workload.tag(random, options.tags())))
+                    .build());
+        }
+
+        long[] ids = new long[options.seedPosts()];
+        int count = 0;
+        Long after = null;
+        while (true) {
+            List<Post> posts = shardedPostRepository.getList(PostSearch.builder()
+                    .page(1)
+                    .size(SEED_PAGE_SIZE)
+                    .after(after)
+                    .build());
+            for (Post post : posts) {
+                if (count < ids.length) {
+                    ids[count++] = post.getId();
+                }
+            }
+            if (posts.size() < SEED_PAGE_SIZE) {
+                break;
+            }
+            after = posts.get(posts.size() - 1).getId();
+        }
+
+        System.out.printf("글 %d 개를 넣었습니다. %dms%n", count, (System.nanoTime() - started) / 1_000_000);
+        return Arrays.copyOf(ids, count);
+    }
+}
@@ -0,0 +1,77 @@
+package com.wondollar.api.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 부하 시험 설정. 모두 loadtest.* 시스템 프로퍼티로 바꿀 수 있고, gradle 에서는 -Ploadtest.rate=2000 처럼 넘긴다.
+ */
+public record LoadTestOptions(
+        // 초당 도착하는 요청 수. 응답을 기다리지 않고 이 속도로 보낸다(열린 모델).
+        int rate,
+        // true 면 도착 간격이 지수 분포(포아송 도착), false 면 일정한 간격이다.
+        boolean poisson,
+        Duration warmup,
+        Duration duration,
+        // 동시에 보내 놓을 수 있는 최대 요청 수. 넘으면 다음 요청은 자리가 날 때까지 늦게 나가고, 늦은 만큼 지연에 잡힌다.
+        int maxInFlight,
+        Map<Operation, Integer> mix,
+        // 목록 조회 페이지 번호 후보. 깊은 페이지일수록 offset 이 크다.
+        int[] listPages,
+        int listSize,
+        int seedPosts,
+        int contentBytes,
+        int tags,
+        long randomSeed,
+        String profiles,
+        boolean writeLimit,
+        Path output,
+        // 0 보다 크면 합격 기준. 보정한 p99 나 오류율이 넘으면 실패로 끝난다.
+        double maxP99Millis,
+        double maxErrorRate) {
+
+    public static LoadTestOptions fromSystemProperties() {
+        return new LoadTestOptions(
+                Integer.getInteger("loadtest.rate", 500),
+                Boolean.parseBoolean(System.getProperty("loadtest.poisson", "true")),
+                Duration.parse("PT" + System.getProperty("loadtest.warmup", "10s")),
+                Duration.parse("PT" + System.getProperty("loadtest.duration", "30s")),
+                Integer.getInteger("loadtest.max-in-flight", 2048),
+                parseMix(System.getProperty("loadtest.mix", "get=60,list=25,write=8,edit=5,delete=2")),
+                Arrays.stream(System.getProperty("loadtest.list-pages", "1,1,1,2,5,20,100").split(","))
+                        .mapToInt(page -> Integer.parseInt(page.trim()))
+                        .toArray(),
+                Integer.getInteger("loadtest.list-size", 10),
+                Integer.getInteger("loadtest.seed-posts", 10_000),
+                Integer.getInteger("loadtest.content-bytes", 1000),
+                Integer.getInteger("loadtest.tags", 50),
+                Long.getLong("loadtest.random-seed", 42L),
+                System.getProperty("loadtest.profiles", ""),
+                Boolean.parseBoolean(System.getProperty("loadtest.write-limit", "false")),
+                Path.of(System.getProperty("loadtest.output", "build/loadtest")),
+                Double.parseDouble(System.getProperty("loadtest.max-p99-millis", "0")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix 는 get=60,list=25 형식이어야 합니다. mix = " + mix);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("loadtest.mix 의 가중치 합은 0 보다 커야 합니다. mix = " + mix);
+        }
+        return weights;
+    }
+
+    public int getWeight(Operation operation) {
+        return mix.getOrDefault(operation, 0);
+    }
+}
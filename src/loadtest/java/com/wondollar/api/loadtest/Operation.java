@@ -0,0 +1,9 @@
+package com.wondollar.api.loadtest;
+
+public enum Operation {
+    GET,
+    LIST,
+    WRITE,
+    EDIT,
+    DELETE
+}
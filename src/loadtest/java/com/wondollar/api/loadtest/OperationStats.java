@@ -0,0 +1,65 @@
+package com.wondollar.api.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청 종류 하나의 결과.
+ * latency 는 요청이 나갔어야 할 시각(도착 시각)부터 응답까지이고, serviceTime 은 실제로 보낸 시각부터 응답까지다.
+ * 서버가 밀려 요청이 늦게 나가도 latency 에는 그만큼 잡히므로 coordinated omission 이 보정된다.
+ */
+public class OperationStats {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final AtomicLong success = new AtomicLong();
+    private final AtomicLong clientErrors = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+        latency.record(doneNanos - intendedNanos);
+        serviceTime.record(doneNanos - sentNanos);
+        if (status < 0) {
+            failures.incrementAndGet();
+        } else if (status >= 500) {
+            serverErrors.incrementAndGet();
+        } else if (status >= 400) {
+            clientErrors.incrementAndGet();
+        } else {
+            success.incrementAndGet();
+        }
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    public long getSuccess() {
+        return success.get();
+    }
+
+    public long getClientErrors() {
+        return clientErrors.get();
+    }
+
+    public long getServerErrors() {
+        return serverErrors.get();
+    }
+
+    // 연결 실패, 시간 초과처럼 응답을 받지 못한 요청
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getErrors() {
+        return clientErrors.get() + serverErrors.get() + failures.get();
+    }
+}
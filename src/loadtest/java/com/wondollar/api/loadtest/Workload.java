@@ -0,0 +1,125 @@
+package com.wondollar.api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * 가중치대로 다음 요청을 고르고 만든다. 스케줄러 스레드 하나만 부르므로 같은 randomSeed 면 같은 요청 순서가 나온다.
+ * <p>
+ * 미리 넣은 글 id 를 섞어 두고, 뒤쪽 deletable 개는 삭제에만, 나머지는 조회와 수정에만 쓴다.
+ * 그래야 조회가 이미 지운 글을 만나 404 가 섞이지 않는다. 삭제할 글이 다 떨어지면 삭제 대신 조회를 보낸다.
+ */
+class Workload {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789 ";
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final URI baseUri;
+    private final Random random;
+    private final long[] ids;
+    private final int readable;
+    private final int[] cumulativeWeights;
+    private int nextDelete;
+
+    Workload(LoadTestOptions options, URI baseUri, long[] ids, int deletable) {
+        this.options = options;
+        this.baseUri = baseUri;
+        this.random = new Random(options.randomSeed());
+        this.ids = ids.clone();
+        this.readable = ids.length - deletable;
+        this.nextDelete = ids.length - 1;
+
+        for (int i = this.ids.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long id = this.ids[i];
+            this.ids[i] = this.ids[j];
+            this.ids[j] = id;
+        }
+
+        Operation[] operations = Operation.values();
+        cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += options.getWeight(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /**
+     * 앞으로 삭제 요청이 몇 번 나올지 어림해 그만큼(여유 20%) 삭제용 글로 떼어 둔다. 단, 미리 넣은 글의 절반을 넘지 않는다.
+     */
+    static int deletableOf(LoadTestOptions options, int seeded) {
+        int total = options.mix().values().stream().mapToInt(Integer::intValue).sum();
+        double seconds = options.warmup().plus(options.duration()).toMillis() / 1000.0;
+        long expected = (long) Math.ceil(options.rate() * seconds * options.getWeight(Operation.DELETE) / total * 1.2);
+        return (int) Math.min(seeded / 2, expected);
+    }
+
+    Operation nextOperation() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                Operation operation = Operation.values()[i];
+                return operation == Operation.DELETE && nextDelete < readable ? Operation.GET : operation;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case GET -> builder("/posts/" + readableId()).GET().build();
+            case LIST -> builder("/posts?page=" + options.listPages()[random.nextInt(options.listPages().length)]
+                    + "&size=" + options.listSize()).GET().build();
+            case WRITE -> json(builder("/posts"), "POST", body());
+            case EDIT -> json(builder("/posts/" + readableId()), "PATCH", body());
+            case DELETE -> builder("/posts/" + ids[nextDelete--]).DELETE().build();
+        };
+    }
+
+    private long readableId() {
+        return ids[random.nextInt(readable)];
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT);
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // 만드는 문자열은 영문 소문자, 숫자, 공백뿐이라 JSON 이스케이프가 필요 없다.
+    private String body() {
+        return "{\"title\":\"" + title(random) + "\",\"content\":\"" + content(random, options.contentBytes())
+                + "\",\"tags\":[\"" + tag(random, options.tags()) + "\",\"" + tag(random, options.tags()) + "\"]}";
+    }
+
+    static String title(Random random) {
+        return text(random, 10 + random.nextInt(40));
+    }
+
+    // 평균 contentBytes 바이트
+    static String content(Random random, int contentBytes) {
+        int half = Math.max(1, contentBytes / 2);
+        return text(random, half + random.nextInt(half * 2));
+    }
+
+    static String tag(Random random, int tags) {
+        return "tag" + random.nextInt(Math.max(1, tags));
+    }
+
+    private static String text(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        chars[0] = 'x';
+        return new String(chars);
+    }
+}
@@ -0,0 +1,304 @@
+package com.wondollar.api.archive;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 아카이브 세그먼트 파일 하나. id 오름차순의 글 묶음(블록)을 deflate 로 압축해 뒤에 덧붙이기만 한다.
+ * <pre>
+ * | int MAGIC | int 압축 길이 | int 원래 길이 | int 글 수 | int CRC32 | long 첫 id | long 마지막 id | 압축된 글들 |
+ * </pre>
+ * 파일을 열 때 블록 헤더만 훑어 블록별 (첫 id, 마지막 id, 위치) 희소 인덱스를 메모리에 만들고, 블록은 메모리 맵에서 읽는다.
+ * 파일은 WINDOW_BYTES 쯤의 창으로 나눠 맵하고, 덧붙일 때는 마지막 창만 다시 맵한다. 블록은 창 경계에 걸치지 않는다.
+ * 쓰다 끊긴 마지막 블록은 CRC 가 맞지 않으므로 인덱스에 넣지 않고, 다음 append 때 잘라낸다.
+ * <p>
+ * 읽기끼리는 동시에 불러도 되지만 append, refresh 는 다른 호출과 겹치지 않게 PostArchive 가 막는다.
+ */
+class ArchiveSegment implements Closeable {
+
+    static final String SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x57415243;
+    private static final int HEADER_BYTES = 36;
+    private static final long WINDOW_BYTES = 16L * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> windows = new ArrayList<>();
+    private final List<Long> windowStarts = new ArrayList<>();
+    private long size;
+
+    private long[] firstIds = new long[16];
+    private long[] lastIds = new long[16];
+    private long[] offsets = new long[16];
+    private int[] windowIndexes = new int[16];
+    private int blockCount;
+
+    private ArchiveSegment(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    static ArchiveSegment open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        ArchiveSegment segment = new ArchiveSegment(path, channel);
+        segment.refresh();
+        return segment;
+    }
+
+    static String fileName(long firstId) {
+        return String.format("segment-%020d%s", firstId, SUFFIX);
+    }
+
+    /**
+     * 마지막으로 읽은 위치 뒤에 다른 노드가 덧붙인 블록을 인덱스에 넣는다.
+     */
+    void refresh() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize == size && !windows.isEmpty()) {
+            return;
+        }
+        // 마지막 창이 다 찼으면 다음 블록부터 새 창을 연다. 앞의 창은 다시 맵하지 않는다.
+        if (windows.isEmpty() || size - windowStarts.get(windows.size() - 1) >= WINDOW_BYTES) {
+            windowStarts.add(size);
+            windows.add(null);
+        }
+        int windowIndex = windows.size() - 1;
+        long windowStart = windowStarts.get(windowIndex);
+        if (fileSize - windowStart > Integer.MAX_VALUE) {
+            throw new IOException("세그먼트 파일이 너무 큽니다. path = " + path + ", size = " + fileSize);
+        }
+
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, fileSize - windowStart);
+        long position = size;
+        while (position + HEADER_BYTES <= fileSize) {
+            int offset = (int) (position - windowStart);
+            int magic = mapped.getInt(offset);
+            int compressedLength = mapped.getInt(offset + 4);
+            if (magic != MAGIC || compressedLength < 0 || position + HEADER_BYTES + compressedLength > fileSize) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(offset + HEADER_BYTES, compressedLength));
+            if ((int) crc.getValue() != mapped.getInt(offset + 16)) {
+                break;
+            }
+            addBlock(mapped.getLong(offset + 20), mapped.getLong(offset + 28), position, windowIndex);
+            position += HEADER_BYTES + compressedLength;
+        }
+        windows.set(windowIndex, mapped);
+        size = position;
+    }
+
+    void append(List<ArchivedPost> posts) throws IOException {
+        if (posts.isEmpty()) {
+            return;
+        }
+        if (blockCount > 0 && posts.get(0).id() <= lastIds[blockCount - 1]) {
+            throw new IllegalArgumentException("아카이브에는 id 오름차순으로만 덧붙일 수 있습니다. id = " + posts.get(0).id());
+        }
+
+        byte[] raw = encode(posts);
+        byte[] compressed = compress(raw);
+        CRC32 crc = new CRC32();
+        crc.update(compressed);
+
+        ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + compressed.length)
+                .putInt(MAGIC)
+                .putInt(compressed.length)
+                .putInt(raw.length)
+                .putInt(posts.size())
+                .putInt((int) crc.getValue())
+                .putLong(posts.get(0).id())
+                .putLong(posts.get(posts.size() - 1).id())
+                .put(compressed)
+                .flip();
+
+        if (channel.size() > size) {
+            channel.truncate(size);
+        }
+        long position = size;
+        while (block.hasRemaining()) {
+            position += channel.write(block, position);
+        }
+        channel.force(false);
+        refresh();
+    }
+
+    Optional<ArchivedPost> find(long id) {
+        int index = blockOf(id);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        for (ArchivedPost post : readBlock(index)) {
+            if (post.id() == id) {
+                return Optional.of(post);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // 마지막 id 가 id 이상인 첫 블록. 그 블록의 첫 id 가 id 보다 크면 없는 글이다.
+    private int blockOf(long id) {
+        int index = Arrays.binarySearch(lastIds, 0, blockCount, id);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < blockCount && firstIds[index] <= id ? index : -1;
+    }
+
+    List<ArchivedPost> readBlock(int index) {
+        MappedByteBuffer buffer = windows.get(windowIndexes[index]);
+        int position = (int) (offsets[index] - windowStarts.get(windowIndexes[index]));
+        int compressedLength = buffer.getInt(position + 4);
+        int rawLength = buffer.getInt(position + 8);
+        int count = buffer.getInt(position + 12);
+
+        byte[] raw = new byte[rawLength];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(position + HEADER_BYTES, compressedLength));
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                read += inflater.inflate(raw, read, rawLength - read);
+            }
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("아카이브 블록이 손상되었습니다. path = " + path + ", offset = " + offsets[index], e));
+        } finally {
+            inflater.end();
+        }
+        return decode(raw, count);
+    }
+
+    int getBlockCount() {
+        return blockCount;
+    }
+
+    long getFirstId(int index) {
+        return firstIds[index];
+    }
+
+    long getFirstId() {
+        return blockCount == 0 ? Long.MAX_VALUE : firstIds[0];
+    }
+
+    long getLastId() {
+        return blockCount == 0 ? 0 : lastIds[blockCount - 1];
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        windows.clear();
+        windowStarts.clear();
+        channel.close();
+    }
+
+    private void addBlock(long firstId, long lastId, long offset, int windowIndex) {
+        if (blockCount == firstIds.length) {
+            firstIds = Arrays.copyOf(firstIds, blockCount * 2);
+            lastIds = Arrays.copyOf(lastIds, blockCount * 2);
+            offsets = Arrays.copyOf(offsets, blockCount * 2);
+            windowIndexes = Arrays.copyOf(windowIndexes, blockCount * 2);
+        }
+        firstIds[blockCount] = firstId;
+        lastIds[blockCount] = lastId;
+        offsets[blockCount] = offset;
+        windowIndexes[blockCount] = windowIndex;
+        blockCount++;
+    }
+
+    private static byte[] encode(List<ArchivedPost> posts) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(posts.size() * 512);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (ArchivedPost post : posts) {
+            out.writeLong(post.id());
+            out.writeLong(post.views());
+            out.writeLong(post.version());
+            writeString(out, post.title());
+            writeString(out, post.content());
+            out.writeInt(post.tags().size());
+            for (String tag : post.tags()) {
+                writeString(out, tag);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<ArchivedPost> decode(byte[] raw, int count) {
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        List<ArchivedPost> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = in.getLong();
+            long views = in.getLong();
+            long version = in.getLong();
+            String title = readString(in);
+            String content = readString(in);
+            int tagCount = in.getInt();
+            List<String> tags = new ArrayList<>(tagCount);
+            for (int j = 0; j < tagCount; j++) {
+                tags.add(readString(in));
+            }
+            posts.add(new ArchivedPost(id, title, content, List.copyOf(tags), views, version));
+        }
+        return posts;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
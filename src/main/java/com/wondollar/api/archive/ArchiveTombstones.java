@@ -0,0 +1,111 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.cache.Invalidation;
+import com.wondollar.api.cache.InvalidationListener;
+import com.wondollar.api.config.ArchiveProperties;
+import com.wondollar.api.repository.ShardedPostRepository;
+import com.wondollar.api.shard.ShardContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 아카이브에서 읽으면 안 되는 글 id. 지운 아카이브 글과, 아카이브에 옛 사본을 남긴 채 DB 에 남은 글이 들어간다.
+ * 묘비는 글이 있는 샤드의 archived_post_tombstone 에 쓰고 지우지 않으므로, 메모리에는 더하기만 한다.
+ * 다른 노드의 삭제는 무효화로 바로 받고, 아카이버가 남긴 묘비는 refresh 주기마다 샤드별로 마지막에 읽은 seq 뒤의 행만 읽는다.
+ * <p>
+ * seq 는 넣을 때 정해지므로 커밋 순서와 다를 수 있다. 비어 있는 seq 가 있으면 GAP_TIMEOUT 동안은 그 앞에서 멈춰 다음 주기에 다시 읽고,
+ * 그보다 오래 비어 있으면 롤백된 것으로 보고 넘어간다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchiveTombstones implements InvalidationListener {
+
+    // 이미 묘비가 있는 글을 다시 지워도 실패하지 않게 merge 로 넣는다.
+    private static final String MERGE_SQL = "merge into archived_post_tombstone (post_id, created_at) key (post_id) values (?, ?)";
+    private static final int POLL_LIMIT = 1000;
+    private static final String POLL_SQL = "select seq, post_id, created_at from archived_post_tombstone where seq > ? order by seq limit " + POLL_LIMIT;
+    private static final long GAP_TIMEOUT_MILLIS = 60_000;
+
+    private final ArchiveProperties properties;
+    private final ShardedPostRepository shardedPostRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PostArchive postArchive;
+    private final Set<Long> postIds = ConcurrentHashMap.newKeySet();
+    // 샤드마다 빈틈 없이 읽은 마지막 seq. refresh 만 쓴다.
+    private final Map<Integer, Long> lastSeqs = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${wondollar.archive.refresh-interval-millis:10000}")
+    public synchronized void refresh() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        for (int shard = 0; shard < shardedPostRepository.getShardCount(); shard++) {
+            long lastSeq = lastSeqs.getOrDefault(shard, 0L);
+            lastSeqs.put(shard, ShardContext.call(shard, () -> poll(lastSeq)));
+        }
+    }
+
+    public boolean contains(long postId) {
+        return postIds.contains(postId);
+    }
+
+    /**
+     * 글이 있는 샤드의 트랜잭션 안에서 부른다. 커밋된 뒤에 add 로 이 노드에도 반영한다.
+     */
+    public void record(long postId) {
+        jdbcTemplate.update(MERGE_SQL, postId, Timestamp.from(Instant.now()));
+    }
+
+    public void add(long postId) {
+        postIds.add(postId);
+    }
+
+    // 읽은 행은 모두 더하되, 돌려주는 seq 는 아직 커밋되지 않았을 수 있는 빈틈 앞에서 멈춘다.
+    private long poll(long lastSeq) {
+        long gapCutoff = System.currentTimeMillis() - GAP_TIMEOUT_MILLIS;
+        List<Row> rows;
+        boolean advanced;
+        do {
+            rows = jdbcTemplate.query(POLL_SQL,
+                    (rs, rowNum) -> new Row(rs.getLong("seq"), rs.getLong("post_id"), rs.getTimestamp("created_at").getTime()),
+                    lastSeq);
+            rows.forEach(row -> postIds.add(row.postId()));
+
+            long contiguous = lastSeq;
+            for (Row row : rows) {
+                if (row.seq() != contiguous + 1 && row.createdAt() > gapCutoff) {
+                    break;
+                }
+                contiguous = row.seq();
+            }
+            advanced = contiguous > lastSeq;
+            lastSeq = contiguous;
+        } while (rows.size() == POLL_LIMIT && advanced);
+        return lastSeq;
+    }
+
+    // 다른 노드에서 지운 글 중 아카이브에 있을 수 있는 글은 그 노드가 묘비를 남겼으므로 바로 가린다.
+    @Override
+    public void onInvalidated(List<Invalidation> invalidations) {
+        long lastId = postArchive.getLastId();
+        invalidations.stream()
+                .filter(invalidation -> invalidation.version() == Invalidation.DELETED && invalidation.postId() <= lastId)
+                .forEach(invalidation -> postIds.add(invalidation.postId()));
+    }
+
+    private record Row(long seq, long postId, long createdAt) {
+    }
+}
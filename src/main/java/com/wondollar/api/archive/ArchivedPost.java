@@ -0,0 +1,17 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.domain.Post;
+
+import java.util.List;
+
+public record ArchivedPost(long id, String title, String content, List<String> tags, long views, long version) {
+
+    public static ArchivedPost of(Post post) {
+        return new ArchivedPost(post.getId(),
+                post.getTitle(),
+                post.getContent(),
+                post.getTags().stream().sorted().toList(),
+                post.getViews(),
+                post.getVersion());
+    }
+}
@@ -0,0 +1,228 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.config.ArchiveProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * 오래된 글을 담는 읽기 전용 보관소. post 테이블에서 옮겨 온 글을 세그먼트 파일에 id 오름차순으로 쌓는다.
+ * 세그먼트 이름은 첫 글 id 이므로 이름순이 곧 id 순이고, 마지막 세그먼트에만 덧붙인다.
+ * 글을 옮기지 않는 노드는 refresh 로 다른 노드가 덧붙인 블록과 새 세그먼트를 따라 읽는다.
+ * 쓰는 노드는 디렉터리의 writer.lock 을 잡고 있어서, 같은 디렉터리에 두 번째 writer 가 뜨면 기동에 실패한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostArchive {
+
+    private static final String WRITER_LOCK = "writer.lock";
+
+    private final ArchiveProperties properties;
+    private final List<ArchiveSegment> segments = new ArrayList<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel writerLock;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(getDirectory());
+        if (properties.isWriter()) {
+            lockWriter();
+        }
+        refresh();
+        log.info("아카이브를 열었습니다. directory = {}, segments = {}, lastId = {}", getDirectory(), segments.size(), getLastId());
+    }
+
+    @Scheduled(fixedDelayString = "${wondollar.archive.refresh-interval-millis:10000}")
+    public void refresh() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Set<Path> opened = new HashSet<>();
+            for (ArchiveSegment segment : segments) {
+                segment.refresh();
+                opened.add(segment.getPath());
+            }
+
+            List<Path> added;
+            try (Stream<Path> files = Files.list(getDirectory())) {
+                added = files.filter(path -> path.getFileName().toString().endsWith(ArchiveSegment.SUFFIX))
+                        .filter(path -> !opened.contains(path))
+                        .sorted()
+                        .toList();
+            }
+            for (Path path : added) {
+                segments.add(ArchiveSegment.open(path, properties.isWriter()));
+            }
+            segments.sort(Comparator.comparing(ArchiveSegment::getPath));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return getLastId() == 0;
+    }
+
+    public long getLastId() {
+        lock.readLock().lock();
+        try {
+            // 마지막 세그먼트가 첫 블록을 쓰다 끊겼으면 비어 있을 수 있다.
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                if (segments.get(i).getBlockCount() > 0) {
+                    return segments.get(i).getLastId();
+                }
+            }
+            return 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<ArchivedPost> find(long id) {
+        lock.readLock().lock();
+        try {
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                ArchiveSegment segment = segments.get(i);
+                if (segment.getFirstId() <= id) {
+                    return segment.find(id);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * beforeId 보다 작은 글을 id 내림차순으로 skip 개 건너뛰고 limit 개까지 읽는다.
+     * 보관된 글은 적게 읽힌다고 보고 블록을 하나씩 풀어 가며 filter 를 건다.
+     */
+    public List<ArchivedPost> getList(Long beforeId, long skip, int limit, Predicate<ArchivedPost> filter) {
+        List<ArchivedPost> posts = new ArrayList<>(Math.min(limit, 256));
+        long before = beforeId == null ? Long.MAX_VALUE : beforeId;
+        long skipped = 0;
+
+        lock.readLock().lock();
+        try {
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                ArchiveSegment segment = segments.get(i);
+                for (int block = segment.getBlockCount() - 1; block >= 0; block--) {
+                    if (segment.getFirstId(block) >= before) {
+                        continue;
+                    }
+                    List<ArchivedPost> blockPosts = segment.readBlock(block);
+                    for (int j = blockPosts.size() - 1; j >= 0; j--) {
+                        ArchivedPost post = blockPosts.get(j);
+                        if (post.id() >= before || !filter.test(post)) {
+                            continue;
+                        }
+                        if (skipped < skip) {
+                            skipped++;
+                            continue;
+                        }
+                        posts.add(post);
+                        if (posts.size() == limit) {
+                            return posts;
+                        }
+                    }
+                }
+            }
+            return posts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * id 오름차순이고 마지막으로 보관한 글보다 id 가 큰 글만 덧붙일 수 있다.
+     * blockSize 개씩 압축하고, 마지막 세그먼트가 segmentBytes 를 넘으면 새 세그먼트를 연다.
+     */
+    public void append(List<ArchivedPost> posts) {
+        if (!properties.isEnabled() || !properties.isWriter()) {
+            throw new IllegalStateException("아카이브에 쓸 수 없는 노드입니다.");
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int from = 0; from < posts.size(); from += properties.getBlockSize()) {
+                List<ArchivedPost> block = posts.subList(from, Math.min(from + properties.getBlockSize(), posts.size()));
+                active(block.get(0).id()).append(block);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (ArchiveSegment segment : segments) {
+                segment.close();
+            }
+            segments.clear();
+            if (writerLock != null) {
+                writerLock.close();
+                writerLock = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 같은 디렉터리에 두 노드가 덧붙이면 세그먼트가 깨지므로 writer 는 하나만 뜰 수 있다. 파일 락은 프로세스가 죽으면 풀린다.
+    private void lockWriter() throws IOException {
+        FileChannel channel = FileChannel.open(getDirectory().resolve(WRITER_LOCK), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            channel.close();
+            throw new IllegalStateException("다른 노드가 이미 이 아카이브에 쓰고 있습니다. writer 는 한 노드에만 켜야 합니다. directory = " + getDirectory());
+        }
+        writerLock = channel;
+    }
+
+    private ArchiveSegment active(long firstId) throws IOException {
+        ArchiveSegment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last != null && last.getSize() < properties.getSegmentBytes()) {
+            return last;
+        }
+        ArchiveSegment segment = ArchiveSegment.open(getDirectory().resolve(ArchiveSegment.fileName(firstId)), true);
+        segments.add(segment);
+        return segment;
+    }
+
+    private Path getDirectory() {
+        return Path.of(properties.getDirectory());
+    }
+}
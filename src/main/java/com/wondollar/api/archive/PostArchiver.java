@@ -0,0 +1,272 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.cache.InvalidationBus;
+import com.wondollar.api.config.ArchiveProperties;
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.repository.ShardedPostRepository;
+import com.wondollar.api.service.TagIndex;
+import com.wondollar.api.shard.PostIdGenerator;
+import com.wondollar.api.shard.ShardRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * minAge 가 지난 글을 post 테이블에서 PostArchive 로 옮긴다.
+ * <p>
+ * 샤드마다 아카이브의 마지막 id 다음부터 오래된 순으로 batchSize 개를 읽고, 꽉 찬 샤드들의 마지막 id 중 가장 작은 값까지만 옮긴다.
+ * 그래야 아직 읽지 않은 글이 이번에 옮긴 글 사이에 끼지 않아 아카이브가 id 오름차순을 유지한다.
+ * <p>
+ * 한 묶음은 모든 샤드에서 글을 잠근 채로 아카이브에 덧붙이고, 같은 트랜잭션에서 지운 뒤 커밋한다.
+ * 읽은 뒤 수정되어 잠기지 않은 글이 있으면 그 앞의 글까지만 다시 잠가 옮기므로, 옮긴 글의 사본이 수정 전 내용일 일이 없다.
+ * 덧붙인 뒤 커밋 전에 멈춰 DB 에 남은 글은 다음 실행 때 마저 지운다.
+ * 그 사이 다른 노드가 고쳐 사본과 version 이 달라진 글은 DB 가 이기도록 묘비로 사본을 가린다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostArchiver {
+
+    // 읽은 뒤 수정되지 않은 글만 잠그고, 잠근 글의 태그와 글을 지운다.
+    private static final String LOCK_SQL = "update post set version = version + 1 where id = ? and version = ?";
+    private static final String DELETE_TAGS_SQL = "delete from post_tag where post_id = ?";
+    private static final String DELETE_POST_SQL = "delete from post where id = ?";
+    // 같은 글이 계속 수정되어 맨 앞 글을 잠그지 못하면 이번 실행은 여기서 멈추고 다음 주기에 다시 한다.
+    private static final int MAX_CONFLICTS = 3;
+    private static final long NO_CONFLICT = Long.MAX_VALUE;
+
+    private final ArchiveProperties properties;
+    private final PostArchive postArchive;
+    private final ShardedPostRepository shardedPostRepository;
+    private final ShardRoutingDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TagIndex tagIndex;
+    private final InvalidationBus invalidationBus;
+    private final ArchiveTombstones archiveTombstones;
+
+    @Scheduled(fixedDelayString = "${wondollar.archive.interval-millis:60000}")
+    public void run() {
+        if (!properties.isEnabled() || !properties.isWriter()) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - properties.getMinAge().toMillis();
+        archiveBefore(PostIdGenerator.firstIdAt(cutoff));
+    }
+
+    /**
+     * id 가 beforeId 보다 작은 글을 모두 옮기고 옮긴 글 수를 돌려준다.
+     */
+    public synchronized int archiveBefore(long beforeId) {
+        recover();
+
+        int archived = 0;
+        int conflicts = 0;
+        while (conflicts < MAX_CONFLICTS) {
+            List<Post> posts = nextBatch(postArchive.getLastId(), beforeId);
+            if (posts.isEmpty()) {
+                break;
+            }
+
+            // 잠그지 못한 글이 있으면 그 글 앞까지만 다시 옮긴다. 맨 앞 글이면 새 version 으로 다시 읽는다.
+            while (!posts.isEmpty()) {
+                long conflictId = move(posts);
+                if (conflictId == NO_CONFLICT) {
+                    archived += posts.size();
+                    break;
+                }
+                posts = posts.stream()
+                        .filter(post -> post.getId() < conflictId)
+                        .toList();
+                if (posts.isEmpty()) {
+                    conflicts++;
+                }
+            }
+        }
+
+        if (archived > 0) {
+            log.info("오래된 글을 아카이브로 옮겼습니다. count = {}, lastId = {}", archived, postArchive.getLastId());
+        }
+        return archived;
+    }
+
+    // 샤드마다 커넥션을 하나씩 열어 posts 를 잠그고, 모두 잠기면 아카이브에 덧붙인 뒤 지우고 커밋한다.
+    // 잠그지 못한 글이 있으면 모두 롤백하고 그중 가장 작은 id 를 돌려준다.
+    private long move(List<Post> posts) {
+        Map<Integer, List<Post>> postsByShard = new TreeMap<>();
+        posts.forEach(post -> postsByShard.computeIfAbsent(PostIdGenerator.shardOf(post.getId()), shard -> new ArrayList<>()).add(post));
+
+        Map<Integer, Connection> connections = new TreeMap<>();
+        boolean committed = false;
+        try {
+            long conflictId = NO_CONFLICT;
+            for (Map.Entry<Integer, List<Post>> entry : postsByShard.entrySet()) {
+                Connection connection = dataSource.getShards().get(entry.getKey()).getConnection();
+                connections.put(entry.getKey(), connection);
+                connection.setAutoCommit(false);
+
+                List<Post> shardPosts = entry.getValue();
+                int[] locked = batchUpdate(connection, LOCK_SQL, shardPosts.stream()
+                        .map(post -> new Object[]{post.getId(), post.getVersion()})
+                        .toList());
+                for (int i = 0; i < shardPosts.size(); i++) {
+                    if (locked[i] == 0) {
+                        conflictId = Math.min(conflictId, shardPosts.get(i).getId());
+                    }
+                }
+            }
+            if (conflictId != NO_CONFLICT) {
+                return conflictId;
+            }
+
+            postArchive.append(posts.stream()
+                    .map(ArchivedPost::of)
+                    .toList());
+            for (Map.Entry<Integer, List<Post>> entry : postsByShard.entrySet()) {
+                List<Object[]> ids = entry.getValue().stream()
+                        .map(post -> new Object[]{post.getId()})
+                        .toList();
+                Connection connection = connections.get(entry.getKey());
+                batchUpdate(connection, DELETE_TAGS_SQL, ids);
+                batchUpdate(connection, DELETE_POST_SQL, ids);
+            }
+            // 일부 샤드만 커밋되고 멈추면 나머지 샤드의 글은 recover 가 마저 지운다.
+            for (Connection connection : connections.values()) {
+                connection.commit();
+            }
+            committed = true;
+        } catch (SQLException e) {
+            throw new IllegalStateException("글을 아카이브로 옮기지 못했습니다.", e);
+        } finally {
+            close(connections.values(), committed);
+        }
+
+        posts.forEach(post -> {
+            tagIndex.remove(post.getId(), post.getTags());
+            invalidationBus.publish(post.getId(), post.getVersion());
+        });
+        return NO_CONFLICT;
+    }
+
+    // 아카이브의 마지막 id 이하인데 DB 에 남아 있고 묘비도 없는 글은 지난 실행이 덧붙인 뒤 커밋하기 전에 멈춘 글이다.
+    private void recover() {
+        long lastId = postArchive.getLastId();
+        for (int shard = 0; shard < shardedPostRepository.getShardCount(); shard++) {
+            long afterId = 0;
+            List<Post> posts;
+            do {
+                posts = shardedPostRepository.getArchiveCandidates(shard, afterId, lastId + 1, properties.getBatchSize());
+                List<Post> leftovers = posts.stream()
+                        .filter(post -> !archiveTombstones.contains(post.getId()))
+                        .toList();
+                if (!leftovers.isEmpty()) {
+                    log.warn("아카이브로 옮기다 멈춘 글을 정리합니다. shard = {}, count = {}", shard, leftovers.size());
+                    Map<Boolean, List<Post>> unchanged = leftovers.stream()
+                            .collect(Collectors.partitioningBy(post -> postArchive.find(post.getId())
+                                    .map(archived -> archived.version() == post.getVersion())
+                                    .orElse(false)));
+                    delete(shard, unchanged.get(true));
+                    hide(shard, unchanged.get(false).stream()
+                            .map(Post::getId)
+                            .toList());
+                }
+                afterId = posts.isEmpty() ? afterId : posts.get(posts.size() - 1).getId();
+            } while (posts.size() == properties.getBatchSize());
+        }
+    }
+
+    private List<Post> nextBatch(long afterId, long beforeId) {
+        List<Post> posts = new ArrayList<>();
+        long boundary = Long.MAX_VALUE;
+        for (int shard = 0; shard < shardedPostRepository.getShardCount(); shard++) {
+            List<Post> shardPosts = shardedPostRepository.getArchiveCandidates(shard, afterId, beforeId, properties.getBatchSize());
+            if (shardPosts.size() == properties.getBatchSize()) {
+                boundary = Math.min(boundary, shardPosts.get(shardPosts.size() - 1).getId());
+            }
+            posts.addAll(shardPosts);
+        }
+
+        long last = boundary;
+        posts.removeIf(post -> post.getId() > last);
+        posts.sort(Comparator.comparing(Post::getId));
+        return posts;
+    }
+
+    // 아카이브에 이미 같은 version 의 사본이 있는 글을 지운다. 그 사이 수정되어 잠기지 않은 글은 묘비로 사본을 가린다.
+    private void delete(int shard, List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<Long> kept = new ArrayList<>();
+        List<Post> deleted = shardedPostRepository.inShardTransaction(shard, () -> {
+            int[] locked = jdbcTemplate.batchUpdate(LOCK_SQL, posts.stream()
+                    .map(post -> new Object[]{post.getId(), post.getVersion()})
+                    .toList());
+            List<Post> lockedPosts = new ArrayList<>(posts.size());
+            for (int i = 0; i < posts.size(); i++) {
+                if (locked[i] != 0) {
+                    lockedPosts.add(posts.get(i));
+                } else {
+                    archiveTombstones.record(posts.get(i).getId());
+                    kept.add(posts.get(i).getId());
+                }
+            }
+
+            List<Object[]> ids = lockedPosts.stream()
+                    .map(post -> new Object[]{post.getId()})
+                    .toList();
+            jdbcTemplate.batchUpdate(DELETE_TAGS_SQL, ids);
+            jdbcTemplate.batchUpdate(DELETE_POST_SQL, ids);
+            return lockedPosts;
+        });
+
+        kept.forEach(archiveTombstones::add);
+        deleted.forEach(post -> {
+            tagIndex.remove(post.getId(), post.getTags());
+            invalidationBus.publish(post.getId(), post.getVersion());
+        });
+    }
+
+    private void hide(int shard, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        shardedPostRepository.inShardTransaction(shard, () -> {
+            ids.forEach(archiveTombstones::record);
+            return ids;
+        });
+        ids.forEach(archiveTombstones::add);
+    }
+
+    private static int[] batchUpdate(Connection connection, String sql, List<Object[]> rows) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    statement.setObject(i + 1, row[i]);
+                }
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        }
+    }
+
+    // 커밋하지 못한 커넥션은 롤백하고 풀에 돌려준다.
+    private static void close(Collection<Connection> connections, boolean committed) {
+        for (Connection connection : connections) {
+            try (connection) {
+                if (!committed) {
+                    connection.rollback();
+                }
+            } catch (SQLException e) {
+                log.warn("아카이브 커넥션을 정리하지 못했습니다.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.wondollar.api.audit;
+
+/**
+ * 감사 로그에 남기는 PostController 호출 종류. 핸들러 메서드 이름으로 정한다.
+ */
+public enum AuditAction {
+
+    WRITE, STREAM, GET, LIST, REVISIONS, REVISION, EDIT, DELETE, OTHER;
+
+    private static final AuditAction[] VALUES = values();
+
+    // 문자열 switch 는 새 객체를 만들지 않으므로 요청 스레드에서 불러도 된다.
+    public static AuditAction of(String handlerMethodName) {
+        return switch (handlerMethodName) {
+            case "post" -> WRITE;
+            case "stream" -> STREAM;
+            case "get" -> GET;
+            case "getList" -> LIST;
+            case "getRevisions" -> REVISIONS;
+            case "getRevision" -> REVISION;
+            case "edit" -> EDIT;
+            case "delete" -> DELETE;
+            default -> OTHER;
+        };
+    }
+
+    static AuditAction byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
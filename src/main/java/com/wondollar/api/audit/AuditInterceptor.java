@@ -0,0 +1,77 @@
+package com.wondollar.api.audit;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * PostController 호출마다 누가(클라이언트 주소), 어떤 글에, 무엇을 했고, 얼마나 걸려, 어떻게 끝났는지 AuditLog 에 넘긴다.
+ * 시작 시각은 박싱을 피하려고 요청 속성 대신 스레드별 배열에 둔다. 요청은 같은 스레드에서 시작하고 끝난다.
+ * /posts/stream 처럼 비동기로 넘어가는 요청은 연결이 열린 시점까지를 기록하고, 끝날 때의 비동기 디스패치는 건너뛴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditInterceptor implements AsyncHandlerInterceptor {
+
+    private static final ThreadLocal<long[]> STARTED_AT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final AuditLog auditLog;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        STARTED_AT.get()[0] = System.nanoTime();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request, response, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request, response, handler);
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return;
+        }
+        long latency = System.nanoTime() - STARTED_AT.get()[0];
+        AuditAction action = handler instanceof HandlerMethod handlerMethod
+                ? AuditAction.of(handlerMethod.getMethod().getName())
+                : AuditAction.OTHER;
+        auditLog.record(request.getRemoteAddr(), action, postIdOf(request), response.getStatus(), latency);
+    }
+
+    // 숫자가 아니면 -1. Long.parseLong 은 실패할 때 예외 객체를 만들므로 직접 읽는다.
+    @SuppressWarnings("unchecked")
+    static long postIdOf(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String postId = variables == null ? null : variables.get("postId");
+        if (postId == null || postId.isEmpty() || postId.length() > 19) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < postId.length(); i++) {
+            char c = postId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            // 19자리는 Long.MAX_VALUE 를 넘을 수 있으므로 곱하고 더하기 전에 넘침을 본다.
+            int digit = c - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
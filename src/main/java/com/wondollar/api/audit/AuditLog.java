@@ -0,0 +1,225 @@
+package com.wondollar.api.audit;
+
+import com.wondollar.api.config.AuditProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * PostController 호출 감사 로그.
+ * 요청 스레드는 record 로 AuditRingBuffer 에 기록만 넣고 바로 돌아가며, 버퍼가 가득 차면 그 기록은 버려지고 개수만 남는다.
+ * 전용 스레드 하나가 버퍼를 batchSize 건씩 꺼내 JSON Lines 로 바꾸고 gzip 파일에 덧붙인다.
+ * 파일은 maxFileBytes 나 rollInterval 을 넘으면 새로 열고, 오래된 파일은 maxFiles 개만 남긴다.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".jsonl.gz";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long CLOSE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AuditProperties properties;
+    private final AuditRingBuffer ringBuffer;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // 아래는 소비자 스레드만 쓴다.
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(64 * 1024);
+    private final StringBuilder line = new StringBuilder(256);
+    private OutputStream out;
+    private long fileBytes;
+    private long fileOpenedAt;
+    private int fileSequence;
+
+    private Thread consumer;
+    private volatile boolean running;
+    private volatile boolean busy;
+    private volatile long closeDeadline = Long.MAX_VALUE;
+
+    public AuditLog(AuditProperties properties) {
+        this.properties = properties;
+        this.ringBuffer = new AuditRingBuffer(properties.isEnabled() ? properties.getBufferSize() : 1);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Files.createDirectories(getDirectory());
+        running = true;
+        consumer = new Thread(this::consume, "audit-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * 요청 스레드에서 부른다. 객체를 만들지 않고, 버퍼가 가득 차도 기다리지 않는다.
+     */
+    public void record(CharSequence address, AuditAction action, long postId, int status, long latencyNanos) {
+        if (running) {
+            ringBuffer.tryPublish(System.currentTimeMillis(), address, action, postId, status, latencyNanos);
+        }
+    }
+
+    public long getDropped() {
+        return ringBuffer.getDropped();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * 지금까지 넣은 기록이 파일에 쓰일 때까지 기다린다. 테스트와 종료 시점에 쓴다.
+     */
+    public boolean awaitWritten(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (busy || !ringBuffer.isEmpty()) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        closeDeadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+        running = false;
+        consumer.join(TimeUnit.NANOSECONDS.toMillis(CLOSE_TIMEOUT_NANOS) + 1000);
+    }
+
+    // 종료 요청 뒤에도 이미 들어온 기록은 closeDeadline 까지 마저 쓴다.
+    private void consume() {
+        while (running || (!ringBuffer.isEmpty() && System.nanoTime() - closeDeadline < 0)) {
+            busy = true;
+            int drained = ringBuffer.drain(this::encode, properties.getBatchSize());
+            if (drained > 0) {
+                writeBatch(drained);
+            }
+            busy = false;
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        closeFile();
+    }
+
+    private void encode(int index) {
+        int status = ringBuffer.getStatus(index);
+        long postId = ringBuffer.getPostId(index);
+
+        line.setLength(0);
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(ringBuffer.getTimestamp(index)))
+                .append("\",\"client\":\"");
+        byte[] addresses = ringBuffer.getAddresses();
+        int offset = ringBuffer.getAddressOffset(index);
+        for (int i = 0; i < ringBuffer.getAddressLength(index); i++) {
+            char c = (char) addresses[offset + i];
+            line.append(c == '"' || c == '\\' ? '_' : c);
+        }
+        line.append("\",\"action\":\"").append(ringBuffer.getAction(index).name())
+                .append("\",\"postId\":").append(postId < 0 ? "null" : Long.toString(postId))
+                .append(",\"status\":").append(status)
+                .append(",\"outcome\":\"").append(status >= 500 ? "FAILED" : status >= 400 ? "REJECTED" : "SUCCESS")
+                .append("\",\"latencyMicros\":").append(TimeUnit.NANOSECONDS.toMicros(ringBuffer.getLatencyNanos(index)))
+                .append("}\n");
+
+        for (int i = 0; i < line.length(); i++) {
+            batch.write(line.charAt(i));
+        }
+    }
+
+    private void writeBatch(int count) {
+        try {
+            rollIfNeeded();
+            batch.writeTo(out);
+            // GZIPOutputStream 을 syncFlush 로 열었으므로 여기까지 쓴 기록은 파일에서 바로 읽힌다.
+            out.flush();
+            fileBytes += batch.size();
+            written.addAndGet(count);
+        } catch (IOException e) {
+            failed.addAndGet(count);
+            log.error("감사 로그를 쓰지 못했습니다. count = {}", count, e);
+            closeFile();
+        } finally {
+            batch.reset();
+        }
+    }
+
+    private void rollIfNeeded() throws IOException {
+        long now = System.currentTimeMillis();
+        if (out != null
+                && fileBytes < properties.getMaxFileBytes()
+                && now - fileOpenedAt < properties.getRollInterval().toMillis()) {
+            return;
+        }
+
+        closeFile();
+        Path file = getDirectory().resolve(String.format("%s%s-%04d%s",
+                PREFIX, LocalDateTime.now().format(FILE_TIME), fileSequence++ % 10_000, SUFFIX));
+        out = new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024, true);
+        fileBytes = 0;
+        fileOpenedAt = now;
+        deleteOldFiles();
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.error("감사 로그 파일을 닫지 못했습니다.", e);
+        }
+        out = null;
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(getDirectory())) {
+            files = list.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        for (int i = 0; i < files.size() - properties.getMaxFiles(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private Path getDirectory() {
+        return Path.of(properties.getDirectory());
+    }
+}
@@ -0,0 +1,148 @@
+package com.wondollar.api.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * 여러 요청 스레드가 쓰고 한 스레드가 읽는 고정 크기 링 버퍼. Disruptor 의 다중 생산자 방식을 따른다.
+ * <p>
+ * 기록은 미리 만들어 둔 필드별 배열의 한 칸(slot)에 들어가므로 publish 는 객체를 만들지 않는다.
+ * 생산자는 claimed 를 CAS 로 올려 순번을 얻고, 칸을 채운 뒤 published[칸] 에 그 순번을 적어 공개한다.
+ * 소비자는 published 가 기대한 순번인 칸까지만 읽고 consumed 를 옮긴다.
+ * 버퍼가 가득 차면 기다리지 않고 버린 뒤 dropped 만 센다.
+ */
+public class AuditRingBuffer {
+
+    static final int ADDRESS_BYTES = 45;
+
+    private final int capacity;
+    private final int mask;
+
+    private final long[] timestamps;
+    private final long[] postIds;
+    private final long[] latencyNanos;
+    private final int[] statuses;
+    private final byte[] actions;
+    private final byte[] addresses;
+    private final byte[] addressLengths;
+
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed;
+
+    public AuditRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 거듭제곱이어야 합니다. capacity = " + capacity);
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.postIds = new long[capacity];
+        this.latencyNanos = new long[capacity];
+        this.statuses = new int[capacity];
+        this.actions = new byte[capacity];
+        this.addresses = new byte[capacity * ADDRESS_BYTES];
+        this.addressLengths = new byte[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * 기록 한 건을 넣는다. 버퍼가 가득 차 있으면 버리고 false 를 돌려준다.
+     * 주소는 ASCII 로 보고 앞의 45자(IPv6 최대 길이)만 남긴다.
+     */
+    public boolean tryPublish(long timestampMillis, CharSequence address, AuditAction action,
+                              long postId, int status, long latency) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= capacity) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        timestamps[index] = timestampMillis;
+        postIds[index] = postId;
+        latencyNanos[index] = latency;
+        statuses[index] = status;
+        actions[index] = (byte) action.ordinal();
+
+        int length = address == null ? 0 : Math.min(address.length(), ADDRESS_BYTES);
+        int offset = index * ADDRESS_BYTES;
+        for (int i = 0; i < length; i++) {
+            addresses[offset + i] = (byte) address.charAt(i);
+        }
+        addressLengths[index] = (byte) length;
+
+        published.set(index, sequence);
+        return true;
+    }
+
+    /**
+     * 공개된 기록을 최대 max 건까지 순서대로 reader 에 넘긴다. 한 스레드에서만 불러야 한다.
+     * reader 가 끝난 칸은 다시 쓰일 수 있으므로 reader 밖으로 칸 번호를 들고 나가면 안 된다.
+     */
+    public int drain(IntConsumer reader, int max) {
+        long next = consumed;
+        int count = 0;
+        while (count < max && published.get((int) (next & mask)) == next) {
+            reader.accept((int) (next & mask));
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumed = next;
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return consumed == claimed.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    long getPostId(int index) {
+        return postIds[index];
+    }
+
+    long getLatencyNanos(int index) {
+        return latencyNanos[index];
+    }
+
+    int getStatus(int index) {
+        return statuses[index];
+    }
+
+    AuditAction getAction(int index) {
+        return AuditAction.byOrdinal(actions[index]);
+    }
+
+    int getAddressOffset(int index) {
+        return index * ADDRESS_BYTES;
+    }
+
+    int getAddressLength(int index) {
+        return addressLengths[index];
+    }
+
+    byte[] getAddresses() {
+        return addresses;
+    }
+}
@@ -0,0 +1,17 @@
+package com.wondollar.api.cache;
+
+import com.wondollar.api.domain.Post;
+
+import java.util.List;
+
+public record CachedPost(Long id, String title, String content, List<String> tags, long views, long version) {
+
+    public static CachedPost of(Post post) {
+        return new CachedPost(post.getId(),
+                post.getTitle(),
+                post.getContent(),
+                post.getTags().stream().sorted().toList(),
+                post.getViews(),
+                post.getVersion());
+    }
+}
@@ -0,0 +1,44 @@
+package com.wondollar.api.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 한 JVM 안에 여러 노드를 띄워 테스트할 때 쓰는 전송. 같은 Hub 에 붙은 다른 노드들에게 바로 전달한다.
+ */
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+
+    private final Hub hub;
+    private volatile Consumer<byte[]> receiver;
+
+    public InMemoryInvalidationTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void send(byte[] payload) {
+        for (InMemoryInvalidationTransport node : hub.nodes) {
+            Consumer<byte[]> target = node.receiver;
+            if (node != this && target != null) {
+                target.accept(payload);
+            }
+        }
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        hub.nodes.add(this);
+    }
+
+    @Override
+    public void stop() {
+        hub.nodes.remove(this);
+    }
+
+    public static class Hub {
+
+        private final List<InMemoryInvalidationTransport> nodes = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,9 @@
+package com.wondollar.api.cache;
+
+/**
+ * 글이 version 으로 바뀌었음을 알린다. 삭제는 어떤 버전보다도 큰 DELETED 로 보낸다.
+ */
+public record Invalidation(long postId, long version) {
+
+    public static final long DELETED = Long.MAX_VALUE;
+}
@@ -0,0 +1,94 @@
+package com.wondollar.api.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 이 노드에서 바뀐 글을 모아 flushIntervalMillis 마다 한 묶음으로 다른 노드에 알린다.
+ * 같은 글이 여러 번 바뀌면 가장 큰 버전 하나만 보낸다.
+ * 다른 노드에서 온 묶음은 등록된 리스너(캐시, 태그 인덱스)에 그대로 넘긴다.
+ */
+@Slf4j
+public class InvalidationBus {
+
+    private static final int MAX_BATCH_SIZE = 4096;
+
+    private final InvalidationTransport transport;
+    private final List<InvalidationListener> listeners;
+    private final long flushIntervalMillis;
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-bus");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public InvalidationBus(InvalidationTransport transport, List<InvalidationListener> listeners, long flushIntervalMillis) {
+        this.transport = transport;
+        this.listeners = listeners;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        transport.start(this::receive);
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdown();
+        flush();
+        transport.stop();
+    }
+
+    public void publish(long postId, long version) {
+        pending.merge(postId, version, Math::max);
+    }
+
+    void flush() {
+        List<Invalidation> batch = new ArrayList<>();
+        for (Long postId : pending.keySet()) {
+            Long version = pending.remove(postId);
+            if (version != null) {
+                batch.add(new Invalidation(postId, version));
+            }
+            if (batch.size() == MAX_BATCH_SIZE) {
+                send(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private void send(List<Invalidation> batch) {
+        try {
+            transport.send(InvalidationCodec.encode(batch));
+        } catch (RuntimeException e) {
+            log.error("무효화 전송에 실패했습니다. 다음 주기에 다시 보냅니다. count = {}", batch.size(), e);
+            batch.forEach(invalidation -> publish(invalidation.postId(), invalidation.version()));
+        }
+    }
+
+    private void receive(byte[] payload) {
+        List<Invalidation> invalidations = InvalidationCodec.decode(payload);
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidated(invalidations);
+            } catch (RuntimeException e) {
+                log.error("무효화 처리에 실패했습니다. listener = {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
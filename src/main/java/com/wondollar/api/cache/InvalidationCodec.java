@@ -0,0 +1,64 @@
+package com.wondollar.api.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 무효화 묶음을 id 순으로 정렬해 (id 차이, version) 를 가변 길이 정수로 적는다.
+ * 가까운 id 가 몰려 있는 보통의 묶음은 항목당 2~3바이트가 된다.
+ */
+public final class InvalidationCodec {
+
+    private InvalidationCodec() {
+    }
+
+    public static byte[] encode(List<Invalidation> invalidations) {
+        List<Invalidation> sorted = new ArrayList<>(invalidations);
+        sorted.sort(Comparator.comparingLong(Invalidation::postId));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + sorted.size() * 3);
+        writeVarLong(out, sorted.size());
+        long previous = 0;
+        for (Invalidation invalidation : sorted) {
+            writeVarLong(out, invalidation.postId() - previous);
+            writeVarLong(out, invalidation.version());
+            previous = invalidation.postId();
+        }
+        return out.toByteArray();
+    }
+
+    public static List<Invalidation> decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        int size = (int) readVarLong(in);
+        List<Invalidation> invalidations = new ArrayList<>(size);
+        long postId = 0;
+        for (int i = 0; i < size; i++) {
+            postId += readVarLong(in);
+            invalidations.add(new Invalidation(postId, readVarLong(in)));
+        }
+        return invalidations;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
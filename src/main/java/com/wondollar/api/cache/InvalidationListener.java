@@ -0,0 +1,8 @@
+package com.wondollar.api.cache;
+
+import java.util.List;
+
+public interface InvalidationListener {
+
+    void onInvalidated(List<Invalidation> invalidations);
+}
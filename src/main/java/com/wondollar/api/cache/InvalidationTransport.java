@@ -0,0 +1,16 @@
+package com.wondollar.api.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 인코딩된 무효화 묶음을 다른 노드로 보낸다. 자기 자신이 보낸 묶음은 receiver 로 돌려주지 않는다.
+ */
+public interface InvalidationTransport {
+
+    void send(byte[] payload);
+
+    void start(Consumer<byte[]> receiver);
+
+    default void stop() {
+    }
+}
@@ -0,0 +1,94 @@
+package com.wondollar.api.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 모든 노드가 같은 DB 를 쓸 때의 전송. 묶음을 post_invalidation 에 한 행으로 넣고 각 노드가 seq 순으로 폴링한다.
+ * 커밋 순서와 seq 순서가 어긋나 놓친 행이 있더라도 PostCache 의 ttl 이 지나면 다시 읽는다.
+ */
+@Slf4j
+public class JdbcInvalidationTransport implements InvalidationTransport {
+
+    private static final String INSERT_SQL = "insert into post_invalidation (node_id, payload, created_at) values (?, ?, ?)";
+    public static final String POLL_SQL = "select seq, node_id, payload from post_invalidation where seq > ? order by seq limit 1000";
+    private static final String PURGE_SQL = "delete from post_invalidation where created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-poller");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private long lastSeq;
+    private long lastPurge;
+
+    public JdbcInvalidationTransport(JdbcTemplate jdbcTemplate, long pollIntervalMillis, long retentionMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMillis = retentionMillis;
+    }
+
+    @Override
+    public void send(byte[] payload) {
+        jdbcTemplate.update(INSERT_SQL, nodeId, payload, Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        Long max = jdbcTemplate.queryForObject("select coalesce(max(seq), 0) from post_invalidation", Long.class);
+        lastSeq = max == null ? 0 : max;
+        scheduler.scheduleWithFixedDelay(() -> poll(receiver), pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void poll(Consumer<byte[]> receiver) {
+        try {
+            List<Row> rows;
+            do {
+                rows = jdbcTemplate.query(POLL_SQL,
+                        (rs, rowNum) -> new Row(rs.getLong("seq"), rs.getString("node_id"), rs.getBytes("payload")),
+                        lastSeq);
+                for (Row row : rows) {
+                    if (!nodeId.equals(row.nodeId())) {
+                        receiver.accept(row.payload());
+                    }
+                    lastSeq = row.seq();
+                }
+            } while (rows.size() == 1000);
+
+            purgeIfDue();
+        } catch (RuntimeException e) {
+            log.warn("무효화 폴링에 실패했습니다. 다음 주기에 다시 시도합니다.", e);
+        }
+    }
+
+    private void purgeIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < retentionMillis / 10) {
+            return;
+        }
+        lastPurge = now;
+        jdbcTemplate.update(PURGE_SQL, new Timestamp(now - retentionMillis));
+    }
+
+    private record Row(long seq, String nodeId, byte[] payload) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.wondollar.api.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * 단일 노드로 띄울 때 쓴다.
+ */
+public class NoOpInvalidationTransport implements InvalidationTransport {
+
+    @Override
+    public void send(byte[] payload) {
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.wondollar.api.cache;
+
+import com.wondollar.api.config.CacheProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 글 1개 조회 결과 캐시.
+ * 무효화가 오면 그 버전의 묘비(tombstone)를 남겨서, 무효화 전에 읽어 둔 옛 버전이 뒤늦게 들어오는 것을 막는다.
+ * 다른 노드에서 반영된 조회수처럼 무효화가 오지 않는 값은 ttl 안에서만 늦는다.
+ * <p>
+ * id 를 섞어 고른 세그먼트마다 접근 순서 LRU 를 두고 세그먼트 락 안에서만 고친다. 상한을 넘으면 그 세그먼트에서 가장 오래 안 쓴 글만 빠진다.
+ * 묘비는 글과 따로 두어 LRU 로 밀려나지 않고, ttl 이 지난 뒤에 정리한다.
+ */
+@Component
+public class PostCache implements InvalidationListener {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlNanos;
+
+    public PostCache(CacheProperties properties) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTtlMillis());
+        int capacity = Math.max(1, (properties.getMaxEntries() + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity);
+        }
+    }
+
+    public Optional<CachedPost> get(Long postId) {
+        Segment segment = segmentOf(postId);
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Entry entry = segment.posts.get(postId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            if (entry.isExpired(now, ttlNanos)) {
+                segment.posts.remove(postId);
+                return Optional.empty();
+            }
+            return Optional.of(entry.post);
+        }
+    }
+
+    public void put(CachedPost post) {
+        Segment segment = segmentOf(post.id());
+        long now = System.nanoTime();
+        synchronized (segment) {
+            if (isNewer(segment.tombstones.get(post.id()), post.version(), now)
+                    || isNewer(segment.posts.get(post.id()), post.version(), now)) {
+                return;
+            }
+            segment.posts.put(post.id(), new Entry(post, post.version(), now));
+        }
+    }
+
+    public void invalidate(long postId, long version) {
+        Segment segment = segmentOf(postId);
+        long now = System.nanoTime();
+        synchronized (segment) {
+            Entry tombstone = segment.tombstones.get(postId);
+            if (tombstone == null || tombstone.isExpired(now, ttlNanos) || tombstone.version < version) {
+                segment.tombstones.put(postId, new Entry(null, version, now));
+            }
+            Entry entry = segment.posts.get(postId);
+            if (entry != null && entry.version < version) {
+                segment.posts.remove(postId);
+            }
+            segment.purgeTombstones(now, ttlNanos);
+        }
+    }
+
+    /**
+     * 조회수가 DB 에 반영된 글을 캐시에서 지워 다음 조회가 DB 값을 읽게 한다.
+     * 캐시 값에 조회수를 더하면 UPDATE 뒤에 새로 읽어 넣은 항목에 한 번 더 더해질 수 있다. 묘비는 그대로 둔다.
+     */
+    public void evict(Long postId) {
+        Segment segment = segmentOf(postId);
+        synchronized (segment) {
+            segment.posts.remove(postId);
+        }
+    }
+
+    @Override
+    public void onInvalidated(List<Invalidation> invalidations) {
+        invalidations.forEach(invalidation -> invalidate(invalidation.postId(), invalidation.version()));
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.posts.size();
+            }
+        }
+        return size;
+    }
+
+    private boolean isNewer(Entry entry, long version, long now) {
+        return entry != null && !entry.isExpired(now, ttlNanos) && entry.version > version;
+    }
+
+    // Snowflake id 의 낮은 비트는 샤드, 노드라 거의 같으므로 곱해 섞은 뒤 높은 비트로 고른다.
+    private Segment segmentOf(long postId) {
+        return segments[(int) ((postId * 0x9E3779B97F4A7C15L) >>> 60)];
+    }
+
+    private static class Segment {
+
+        private final LinkedHashMap<Long, Entry> posts;
+        private final Map<Long, Entry> tombstones = new HashMap<>();
+        private long purgedAt = System.nanoTime();
+
+        Segment(int capacity) {
+            this.posts = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        // ttl 마다 한 번씩만 훑으므로 무효화 하나에 드는 비용은 일정하다.
+        void purgeTombstones(long now, long ttlNanos) {
+            if (now - purgedAt <= ttlNanos) {
+                return;
+            }
+            purgedAt = now;
+            tombstones.values().removeIf(tombstone -> tombstone.isExpired(now, ttlNanos));
+        }
+    }
+
+    private record Entry(CachedPost post, long version, long cachedAt) {
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - cachedAt > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.wondollar.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "wondollar.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = false;
+
+    // 아카이브로 글을 옮기는 노드. 모든 노드가 같은 디렉터리(공유 스토리지)를 보고, 그중 한 노드에만 명시적으로 켠다.
+    private boolean writer = false;
+    private String directory = "archive";
+
+    // 작성된 지 이 기간이 지난 글을 옮긴다. 작성 시각은 글 id 에서 읽는다.
+    private Duration minAge = Duration.ofDays(30);
+    private int batchSize = 1000;
+
+    // 한 번에 압축하는 글 수와 세그먼트 파일 하나의 최대 크기
+    private int blockSize = 64;
+    private long segmentBytes = 256L * 1024 * 1024;
+}
@@ -0,0 +1,25 @@
+package com.wondollar.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "wondollar.audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+    private String directory = "audit";
+
+    // 링 버퍼 칸 수(2의 거듭제곱)와 한 번에 파일로 내보내는 기록 수
+    private int bufferSize = 65536;
+    private int batchSize = 4096;
+
+    // 압축 전 크기나 기간 중 하나를 넘으면 새 파일로 넘어가고, 오래된 파일은 maxFiles 개만 남긴다.
+    private long maxFileBytes = 64L * 1024 * 1024;
+    private Duration rollInterval = Duration.ofHours(1);
+    private int maxFiles = 48;
+}
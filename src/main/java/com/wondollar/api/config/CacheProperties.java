@@ -0,0 +1,20 @@
+package com.wondollar.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "wondollar.cache")
+public class CacheProperties {
+
+    private long ttlMillis = 30_000;
+    private int maxEntries = 10_000;
+
+    // none: 단일 노드, jdbc: 공유 DB 의 post_invalidation 테이블을 폴링
+    private String transport = "none";
+    private long flushIntervalMillis = 50;
+    private long pollIntervalMillis = 100;
+    private long retentionMillis = 600_000;
+}
@@ -0,0 +1,76 @@
+package com.wondollar.api.config;
+
+import com.wondollar.api.limiter.DbLatencyMonitor;
+import com.wondollar.api.shard.PostIdGenerator;
+import com.wondollar.api.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardProperties.class)
+public class DataSourceConfig {
+
+    // 샤드마다 같은 spring.datasource.hikari 설정으로 풀을 만들고, DB 지연 측정기를 붙인다.
+    @Bean
+    public ShardRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                             ShardProperties shardProperties,
+                                             Environment environment,
+                                             DbLatencyMonitor dbLatencyMonitor) {
+        if (shardProperties.getCount() < 1 || shardProperties.getCount() > PostIdGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("샤드 수는 1 이상 " + PostIdGenerator.MAX_SHARDS + " 이하여야 합니다. count = " + shardProperties.getCount());
+        }
+        PostIdGenerator.configure(workerId(shardProperties, environment));
+
+        HikariConfig base = Binder.get(environment)
+                .bind("spring.datasource.hikari", HikariConfig.class)
+                .orElseGet(HikariConfig::new);
+
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardProperties.getCount(); shard++) {
+            HikariConfig config = new HikariConfig();
+            base.copyStateTo(config);
+            config.setJdbcUrl(shardProperties.urlFor(shard, dataSourceProperties.determineUrl()));
+            config.setUsername(dataSourceProperties.determineUsername());
+            config.setPassword(dataSourceProperties.determinePassword());
+            config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            config.setPoolName("wondollar-shard-" + shard);
+            config.setMetricsTrackerFactory(dbLatencyMonitor);
+            shards.add(new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // 샤드가 여럿이거나 무효화를 jdbc 로 주고받으면 여러 노드가 id 를 만든다고 보고, worker-id 를 정하지 않았으면 기동을 멈춘다.
+    private static int workerId(ShardProperties shardProperties, Environment environment) {
+        if (shardProperties.getWorkerId() != null) {
+            return shardProperties.getWorkerId();
+        }
+        boolean multiNode = "jdbc".equals(environment.getProperty("wondollar.cache.transport"));
+        if (shardProperties.getCount() > 1 || multiNode) {
+            throw new IllegalArgumentException("노드마다 다른 wondollar.shard.worker-id 를 정해야 합니다. count = " + shardProperties.getCount());
+        }
+        return 0;
+    }
+
+    // 기본 Flyway 는 라우팅 DataSource 의 0번 샤드만 보므로 모든 샤드에 같은 마이그레이션을 돌린다.
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(ShardRoutingDataSource dataSource) {
+        return flyway -> dataSource.getShards().forEach(shard -> Flyway.configure()
+                .configuration(flyway.getConfiguration())
+                .dataSource(shard)
+                .load()
+                .migrate());
+    }
+}
@@ -0,0 +1,34 @@
+package com.wondollar.api.config;
+
+import com.wondollar.api.cache.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class InvalidationConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "wondollar.cache.transport", havingValue = "jdbc")
+    public InvalidationTransport jdbcInvalidationTransport(JdbcTemplate jdbcTemplate, CacheProperties properties) {
+        return new JdbcInvalidationTransport(jdbcTemplate, properties.getPollIntervalMillis(), properties.getRetentionMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "wondollar.cache.transport", havingValue = "none", matchIfMissing = true)
+    public InvalidationTransport noOpInvalidationTransport() {
+        return new NoOpInvalidationTransport();
+    }
+
+    @Bean
+    public InvalidationBus invalidationBus(InvalidationTransport transport,
+                                           List<InvalidationListener> listeners,
+                                           CacheProperties properties) {
+        return new InvalidationBus(transport, listeners, properties.getFlushIntervalMillis());
+    }
+}
@@ -0,0 +1,22 @@
+package com.wondollar.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "wondollar.shard")
+public class ShardProperties {
+
+    private int count = 1;
+    // 노드마다 달라야 한다. 비워 두면 한 노드만 id 를 만드는 배포에서만 0 을 쓴다.
+    private Integer workerId;
+
+    // 0번 샤드는 spring.datasource.url 을 쓰고, 나머지는 이 템플릿에 샤드 번호를 넣어 만든다.
+    private String urlTemplate = "jdbc:h2:mem:wondollar-shard-%d";
+
+    public String urlFor(int shard, String primaryUrl) {
+        return shard == 0 ? primaryUrl : String.format(urlTemplate, shard);
+    }
+}
@@ -0,0 +1,54 @@
+package com.wondollar.api.config;
+
+import com.wondollar.api.controller.ExceptionController;
+import com.wondollar.api.controller.PostController;
+import com.wondollar.api.limiter.ClientRateLimiter;
+import com.wondollar.api.limiter.DbLatencyMonitor;
+import com.wondollar.api.service.PostBroadcaster;
+import com.wondollar.api.service.PostService;
+import com.wondollar.api.service.TagIndex;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+
+@Configuration
+public class StartupConfig {
+
+    // lazy-initialization 을 켜도 요청 경로의 빈은 기동 시점에 만들어 첫 요청이 느려지지 않게 한다.
+    @Bean
+    public static LazyInitializationExcludeFilter hotBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                PostController.class,
+                ExceptionController.class,
+                PostService.class,
+                PostBroadcaster.class,
+                TagIndex.class,
+                ClientRateLimiter.class,
+                DbLatencyMonitor.class);
+    }
+
+    // 요청 없이 도는 빈은 아무도 찾지 않으면 영영 만들어지지 않으므로 목록 대신 타입으로 골라 기동 시점에 만든다.
+    @Bean
+    public static LazyInitializationExcludeFilter backgroundBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && isBackground(ClassUtils.getUserClass(beanType));
+    }
+
+    static boolean isBackground(Class<?> beanType) {
+        if (SmartLifecycle.class.isAssignableFrom(beanType)
+                || ApplicationRunner.class.isAssignableFrom(beanType)
+                || CommandLineRunner.class.isAssignableFrom(beanType)) {
+            return true;
+        }
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                        || AnnotatedElementUtils.hasAnnotation(method, EventListener.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -0,0 +1,27 @@
+package com.wondollar.api.config;
+
+import com.wondollar.api.audit.AuditInterceptor;
+import com.wondollar.api.limiter.WriteLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties({WriteLimitProperties.class, AuditProperties.class})
+public class WebConfig implements WebMvcConfigurer {
+
+    private final AuditInterceptor auditInterceptor;
+    private final WriteLimitInterceptor writeLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 쓰기 제한으로 거절된 요청도 남도록 감사 로그를 먼저 건다.
+        registry.addInterceptor(auditInterceptor)
+                .addPathPatterns("/posts", "/posts/**");
+        registry.addInterceptor(writeLimitInterceptor)
+                .addPathPatterns("/posts", "/posts/*");
+    }
+}
@@ -0,0 +1,21 @@
+package com.wondollar.api.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "wondollar.write-limit")
+public class WriteLimitProperties {
+
+    private boolean enabled = true;
+
+    // 클라이언트별 초당 허용 쓰기 요청 수와 순간 허용량
+    private double permitsPerSecond = 5;
+    private int burst = 20;
+
+    // DB 커넥션 대기 + 사용 시간의 p99 가 이 값을 넘으면 쓰기 요청을 503 으로 거절한다.
+    private long sheddingThresholdMillis = 500;
+    private int minSamples = 20;
+}
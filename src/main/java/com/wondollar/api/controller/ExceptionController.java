@@ -1,9 +1,15 @@
 package com.wondollar.api.controller;
 
 import com.wondollar.api.exception.PostNotFound;
+import com.wondollar.api.exception.RevisionNotFound;
+import com.wondollar.api.exception.ServerOverloaded;
+import com.wondollar.api.exception.TooManyRequests;
 import com.wondollar.api.response.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -42,4 +48,51 @@ public class ExceptionController {
 
         return response;
     }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(RevisionNotFound.class)
+    public ErrorResponse revisionNotFound(RevisionNotFound e) {
+        return ErrorResponse.builder()
+                .code("404")
+                .message(e.getMessage())
+                .build();
+    }
+
+    // 같은 글을 동시에 수정해 버전이 어긋나면 500 대신 409 로 알려, 클라이언트가 다시 읽고 고치게 한다.
+    @ResponseBody
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ErrorResponse optimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        log.debug("동시 수정으로 버전이 맞지 않습니다.", e);
+
+        return ErrorResponse.builder()
+                .code("409")
+                .message("다른 요청이 먼저 글을 수정했습니다. 다시 조회한 뒤 시도해주세요.")
+                .build();
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(TooManyRequests.class)
+    public ErrorResponse tooManyRequests(TooManyRequests e, HttpServletResponse httpResponse) {
+        httpResponse.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        return ErrorResponse.builder()
+                .code("429")
+                .message(e.getMessage())
+                .build();
+    }
+
+    @ResponseBody
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(ServerOverloaded.class)
+    public ErrorResponse serverOverloaded(ServerOverloaded e, HttpServletResponse httpResponse) {
+        httpResponse.setHeader(HttpHeaders.RETRY_AFTER, "1");
+
+        return ErrorResponse.builder()
+                .code("503")
+                .message(e.getMessage())
+                .build();
+    }
 }
@@ -4,11 +4,17 @@ import com.wondollar.api.request.PostCreate;
 import com.wondollar.api.request.PostEdit;
 import com.wondollar.api.request.PostSearch;
 import com.wondollar.api.response.PostResponse;
+import com.wondollar.api.response.PostRevisionResponse;
+import com.wondollar.api.response.PostRevisionSummary;
+import com.wondollar.api.service.PostBroadcaster;
+import com.wondollar.api.service.PostRevisionService;
 import com.wondollar.api.service.PostService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,12 +24,19 @@ import java.util.List;
 public class PostController {
 
     private final PostService postService;
+    private final PostBroadcaster postBroadcaster;
+    private final PostRevisionService postRevisionService;
 
     @PostMapping ("/posts")
     public void post(@RequestBody @Valid PostCreate request) {
         postService.write(request);
     }
 
+    @GetMapping(value = "/posts/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return postBroadcaster.subscribe(lastEventId);
+    }
+
     @GetMapping("/posts/{postId}")
     public PostResponse get(@PathVariable Long postId) {
         return postService.get(postId);
@@ -34,6 +47,16 @@ public class PostController {
         return postService.getList(postSearch);
     }
 
+    @GetMapping("/posts/{postId}/revisions")
+    public List<PostRevisionSummary> getRevisions(@PathVariable Long postId) {
+        return postService.getRevisions(postId);
+    }
+
+    @GetMapping("/posts/{postId}/revisions/{revision}")
+    public PostRevisionResponse getRevision(@PathVariable Long postId, @PathVariable long revision) {
+        return postRevisionService.getRevision(postId, revision);
+    }
+
     @PatchMapping("/posts/{postId}")
     public void edit(@PathVariable Long postId, @RequestBody @Valid PostEdit request) {
         postService.edit(postId, request);
@@ -1,10 +1,18 @@
 package com.wondollar.api.domain;
 
+import com.wondollar.api.shard.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Entity
 @NoArgsConstructor(access = AccessLevel.PUBLIC)
@@ -12,28 +20,60 @@ import lombok.NoArgsConstructor;
 public class Post {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
+    @Column(length = 100)
     private String title;
 
     @Lob
     private String content;
 
+    // ViewCounter 가 SQL 로 직접 더하므로 엔티티 insert/update 에서는 제외한다.
+    @Column(insertable = false, updatable = false)
+    private long views;
+
+    @Version
+    private Long version;
+
+    @ElementCollection
+    @CollectionTable(name = "post_tag",
+            joinColumns = @JoinColumn(name = "post_id"),
+            indexes = @Index(name = "idx_post_tag_tag_post_id", columnList = "tag, post_id desc"))
+    @Column(name = "tag", length = 30, nullable = false)
+    @BatchSize(size = 100)
+    private Set<String> tags = new HashSet<>();
+
     @Builder
-    public Post(String title, String content) {
+    public Post(String title, String content, Collection<String> tags) {
         this.title = title;
         this.content = content;
+        this.tags.addAll(normalizeTags(tags));
     }
 
     public PostEditor.PostEditorBuilder toEditor() {
         return PostEditor.builder()
                 .title(title)
-                .content(content);
+                .content(content)
+                .tags(Set.copyOf(tags));
     }
 
     public void edit(PostEditor postEditor) {
         title = postEditor.getTitle();
         content = postEditor.getContent();
+
+        Set<String> editedTags = normalizeTags(postEditor.getTags());
+        tags.retainAll(editedTags);
+        tags.addAll(editedTags);
+    }
+
+    public static Set<String> normalizeTags(Collection<String> tags) {
+        if (tags == null) {
+            return Set.of();
+        }
+        return tags.stream()
+                .filter(tag -> tag != null && !tag.isBlank())
+                .map(tag -> tag.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
     }
 }
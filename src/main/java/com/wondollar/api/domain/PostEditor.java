@@ -2,25 +2,31 @@ package com.wondollar.api.domain;
 
 import lombok.Getter;
 
+import java.util.Collection;
+
 @Getter
 public class PostEditor {
 
     private final String title;
     private final String content;
+    private final Collection<String> tags;
+
     public static PostEditorBuilder builder() {
         return new PostEditorBuilder();
     }
 
-    public PostEditor(String title, String content) {
+    public PostEditor(String title, String content, Collection<String> tags) {
 
         this.title = title;
         this.content = content;
+        this.tags = tags;
     }
 
     public static class PostEditorBuilder {
 
         private String title;
         private String content;
+        private Collection<String> tags;
 
         PostEditorBuilder() {
         }
@@ -39,12 +45,19 @@ public class PostEditor {
             return this;
         }
 
+        public PostEditorBuilder tags(final Collection<String> tags) {
+            if (tags != null) {
+                this.tags = tags;
+            }
+            return this;
+        }
+
         public PostEditor build() {
-            return new PostEditor(this.title, this.content);
+            return new PostEditor(this.title, this.content, this.tags);
         }
 
         public String toString() {
-            return "PostEditor.PostEditorBuilder(title=" + this.title + ", content=" + this.content + ")";
+            return "PostEditor.PostEditorBuilder(title=" + this.title + ", content=" + this.content + ", tags=" + this.tags + ")";
         }
     }
 }
@@ -0,0 +1,46 @@
+package com.wondollar.api.domain;
+
+import com.wondollar.api.shard.SnowflakeId;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_post_revision_post_id_revision", columnNames = {"post_id", "revision"}))
+@NoArgsConstructor(access = AccessLevel.PUBLIC)
+@Getter
+public class PostRevision {
+
+    @Id
+    @SnowflakeId
+    private Long id;
+
+    private Long postId;
+
+    private long revision;
+
+    @Column(length = 100)
+    private String title;
+
+    // true 면 data 는 압축한 본문 전체, false 면 직전 리비전 본문과의 차이
+    private boolean snapshot;
+
+    @Lob
+    private byte[] data;
+
+    private LocalDateTime createdAt;
+
+    @Builder
+    public PostRevision(Long postId, long revision, String title, boolean snapshot, byte[] data, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.revision = revision;
+        this.title = title;
+        this.snapshot = snapshot;
+        this.data = data;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,10 @@
+package com.wondollar.api.exception;
+
+public class RevisionNotFound extends RuntimeException {
+
+    private static final String MESSAGE = "존재하지 않는 수정 이력입니다.";
+
+    public RevisionNotFound() {
+        super(MESSAGE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.wondollar.api.exception;
+
+public class ServerOverloaded extends RuntimeException {
+
+    private static final String MESSAGE = "서버가 혼잡합니다. 잠시 후 다시 시도해주세요.";
+
+    public ServerOverloaded() {
+        super(MESSAGE);
+    }
+}
@@ -0,0 +1,10 @@
+package com.wondollar.api.exception;
+
+public class TooManyRequests extends RuntimeException {
+
+    private static final String MESSAGE = "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.";
+
+    public TooManyRequests() {
+        super(MESSAGE);
+    }
+}
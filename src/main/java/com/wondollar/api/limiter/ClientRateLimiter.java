@@ -0,0 +1,53 @@
+package com.wondollar.api.limiter;
+
+import com.wondollar.api.config.WriteLimitProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * 클라이언트별 토큰 버킷.
+ * ConcurrentHashMap 의 버킷 단위 락은 최초 생성 시에만 잡히고, 이후에는 버킷의 CAS 만 사용한다.
+ * 시각은 nanoTime 으로 읽고, 테스트는 시각을 직접 넘겨 요청 속도와 상관없이 돌린다.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final WriteLimitProperties properties;
+    private final LongSupplier nanoTime;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ClientRateLimiter(WriteLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    public ClientRateLimiter(WriteLimitProperties properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+    }
+
+    public boolean tryAcquire(String clientKey) {
+        long now = nanoTime.getAsLong();
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(clientKey,
+                    key -> new TokenBucket(properties.getPermitsPerSecond(), properties.getBurst(), now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    // 가득 찬 버킷은 새로 만든 버킷과 같으므로 지워도 동작이 바뀌지 않는다.
+    @Scheduled(fixedDelayString = "${wondollar.write-limit.eviction-interval-millis:60000}")
+    public void evictIdleBuckets() {
+        long now = nanoTime.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
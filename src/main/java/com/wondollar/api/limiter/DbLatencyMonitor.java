@@ -0,0 +1,73 @@
+package com.wondollar.api.limiter;
+
+import com.wondollar.api.config.WriteLimitProperties;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari 가 보고하는 커넥션 대기 시간과 사용 시간으로 DB 지연의 p99 를 추적한다.
+ * 풀이 포화되면 대기 시간이, 쿼리가 느려지면 사용 시간이 늘어나므로 둘을 더해 판단한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DbLatencyMonitor implements MetricsTrackerFactory {
+
+    private static final int WINDOW_SIZE = 4096;
+
+    private final WriteLimitProperties properties;
+    private final LatencyWindow acquireWindow = new LatencyWindow(WINDOW_SIZE);
+    private final LatencyWindow usageWindow = new LatencyWindow(WINDOW_SIZE);
+
+    private volatile boolean overloaded;
+    private volatile long p99Millis;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireWindow.record(TimeUnit.NANOSECONDS.toMillis(elapsedAcquiredNanos));
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usageWindow.record(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                acquireWindow.record(properties.getSheddingThresholdMillis() + 1);
+            }
+        };
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void evaluate() {
+        long acquire = acquireWindow.percentileSinceLast(0.99, properties.getMinSamples());
+        long usage = usageWindow.percentileSinceLast(0.99, properties.getMinSamples());
+        long p99 = Math.max(0, acquire) + Math.max(0, usage);
+        boolean next = p99 > properties.getSheddingThresholdMillis();
+
+        if (next != overloaded) {
+            log.warn("DB 지연 p99 = {}ms, 쓰기 요청 부하 차단 {}", p99, next ? "시작" : "해제");
+        }
+        p99Millis = p99;
+        overloaded = next;
+    }
+
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    public long getP99Millis() {
+        return p99Millis;
+    }
+}
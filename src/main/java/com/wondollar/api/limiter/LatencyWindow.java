@@ -0,0 +1,49 @@
+package com.wondollar.api.limiter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 최근 측정값을 고정 크기 링에 덮어쓰며 보관한다.
+ * 기록은 여러 스레드에서, 백분위 계산은 한 스레드에서만 호출한다고 가정한다.
+ */
+public class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final int mask;
+    private final AtomicLong count = new AtomicLong();
+    private long evaluated;
+
+    public LatencyWindow(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 거듭제곱이어야 합니다. capacity = " + capacity);
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public void record(long value) {
+        long index = count.getAndIncrement();
+        samples.set((int) (index & mask), value);
+    }
+
+    /**
+     * 직전 호출 이후 기록된 값들의 백분위를 구한다. 표본이 minSamples 보다 적으면 -1 을 반환한다.
+     */
+    public long percentileSinceLast(double percentile, int minSamples) {
+        long end = count.get();
+        int size = (int) Math.min(end - evaluated, samples.length());
+        evaluated = end;
+        if (size < Math.max(1, minSamples)) {
+            return -1;
+        }
+
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get((int) ((end - size + i) & mask));
+        }
+        Arrays.sort(copy);
+        return copy[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+    }
+}
@@ -0,0 +1,39 @@
+package com.wondollar.api.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GCRA 방식의 토큰 버킷.
+ * 남은 토큰 수 대신 "다음 요청이 허용되는 이론상 시각" 하나만 저장하므로 CAS 한 번으로 갱신된다.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.emissionInterval = (long) (NANOS_PER_SECOND / permitsPerSecond);
+        this.burstTolerance = emissionInterval * (Math.max(1, burst) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - nowNanos > 0 ? arrival : nowNanos;
+            if (start - nowNanos > burstTolerance) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionInterval)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
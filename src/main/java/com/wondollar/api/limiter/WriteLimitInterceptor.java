@@ -0,0 +1,44 @@
+package com.wondollar.api.limiter;
+
+import com.wondollar.api.config.WriteLimitProperties;
+import com.wondollar.api.exception.ServerOverloaded;
+import com.wondollar.api.exception.TooManyRequests;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+@Component
+@RequiredArgsConstructor
+public class WriteLimitInterceptor implements HandlerInterceptor {
+
+    private final WriteLimitProperties properties;
+    private final ClientRateLimiter clientRateLimiter;
+    private final DbLatencyMonitor dbLatencyMonitor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!properties.isEnabled() || !isWrite(request)) {
+            return true;
+        }
+
+        // 부하 차단으로 거절한 요청이 클라이언트의 토큰을 쓰지 않도록 과부하부터 본다.
+        if (dbLatencyMonitor.isOverloaded()) {
+            throw new ServerOverloaded();
+        }
+
+        // LB 뒤에서는 server.forward-headers-strategy 가 신뢰하는 프록시의 X-Forwarded-For 로 원래 클라이언트 주소를 넣어 준다.
+        if (!clientRateLimiter.tryAcquire(request.getRemoteAddr())) {
+            throw new TooManyRequests();
+        }
+
+        return true;
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.POST.matches(method) || HttpMethod.PATCH.matches(method);
+    }
+}
@@ -1,8 +1,13 @@
 package com.wondollar.api.repository;
 
 import com.wondollar.api.domain.Post;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
 
+    @EntityGraph(attributePaths = "tags")
+    Optional<Post> findWithTagsById(Long id);
 }
@@ -8,4 +8,14 @@ import java.util.List;
 public interface PostRepositoryCustom {
 
     List<Post> getList(PostSearch postSearch);
+
+    long getCount(PostSearch postSearch);
+
+    List<Post> getListByIds(List<Long> ids);
+
+    List<Post> getArchiveCandidates(long afterId, long beforeId, int limit);
+
+    List<PostTagRow> getTagsAfter(PostTagRow last, int limit);
+
+    List<PostTagRow> getTagsByPostIds(List<Long> postIds);
 }
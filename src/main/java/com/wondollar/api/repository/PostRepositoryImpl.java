@@ -1,8 +1,14 @@
 package com.wondollar.api.repository;
 
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import com.wondollar.api.domain.Post;
 import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.request.TagMatch;
 import lombok.RequiredArgsConstructor;
 
 import java.util.List;
@@ -16,10 +22,84 @@ public class PostRepositoryImpl implements PostRepositoryCustom {
 
     @Override
     public List<Post> getList(PostSearch postSearch) {
-        return jpaQueryFactory.selectFrom(post)
-                .limit(postSearch.getSize())
+        return search(jpaQueryFactory.selectFrom(post), postSearch)
+                .where(afterId(postSearch.getAfter()))
+                .limit(postSearch.getLimit())
                 .offset(postSearch.getOffset())
                 .orderBy(post.id.desc())
                 .fetch();
     }
+
+    @Override
+    public long getCount(PostSearch postSearch) {
+        Long count = search(jpaQueryFactory.select(post.count()).from(post), postSearch)
+                .where(afterId(postSearch.getAfter()))
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public List<Post> getListByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        return jpaQueryFactory.selectFrom(post)
+                .where(post.id.in(ids))
+                .orderBy(post.id.desc())
+                .fetch();
+    }
+
+    @Override
+    public List<Post> getArchiveCandidates(long afterId, long beforeId, int limit) {
+        return jpaQueryFactory.selectFrom(post)
+                .where(post.id.gt(afterId), post.id.lt(beforeId))
+                .orderBy(post.id.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public List<PostTagRow> getTagsAfter(PostTagRow last, int limit) {
+        StringPath tag = Expressions.stringPath("tag");
+
+        return jpaQueryFactory.select(Projections.constructor(PostTagRow.class, post.id, tag))
+                .from(post)
+                .join(post.tags, tag)
+                .where(last == null ? null : post.id.gt(last.postId())
+                        .or(post.id.eq(last.postId()).and(tag.gt(last.tag()))))
+                .orderBy(post.id.asc(), tag.asc())
+                .limit(limit)
+                .fetch();
+    }
+
+    @Override
+    public List<PostTagRow> getTagsByPostIds(List<Long> postIds) {
+        StringPath tag = Expressions.stringPath("tag");
+
+        return jpaQueryFactory.select(Projections.constructor(PostTagRow.class, post.id, tag))
+                .from(post)
+                .join(post.tags, tag)
+                .where(post.id.in(postIds))
+                .fetch();
+    }
+
+    // ALL 은 태그마다 post_tag 를 조인해 (tag, post_id desc) 인덱스를 타고, ANY 는 exists 로 묶는다.
+    private <T> JPAQuery<T> search(JPAQuery<T> query, PostSearch postSearch) {
+        if (postSearch.hasTags() && postSearch.getMatch() == TagMatch.ANY) {
+            query.where(post.tags.any().in(postSearch.getTags()));
+        } else if (postSearch.hasTags()) {
+            List<String> tags = postSearch.getTags();
+            for (int i = 0; i < tags.size(); i++) {
+                StringPath tag = Expressions.stringPath("tag" + i);
+                query.join(post.tags, tag)
+                        .where(tag.eq(tags.get(i)));
+            }
+        }
+        return query;
+    }
+
+    private BooleanExpression afterId(Long after) {
+        return after == null ? null : post.id.lt(after);
+    }
 }
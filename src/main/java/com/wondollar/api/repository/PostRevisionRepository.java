@@ -0,0 +1,27 @@
+package com.wondollar.api.repository;
+
+import com.wondollar.api.domain.PostRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PostRevisionRepository extends JpaRepository<PostRevision, Long> {
+
+    @Query("select new com.wondollar.api.repository.PostRevisionRow(r.revision, r.title, r.snapshot, r.createdAt)"
+            + " from PostRevision r where r.postId = :postId order by r.revision desc")
+    List<PostRevisionRow> getRows(@Param("postId") Long postId);
+
+    // 요청한 리비전 이하에서 가장 가까운 스냅숏부터 그 리비전까지를 순서대로 읽는다.
+    @Query("select r from PostRevision r where r.postId = :postId and r.revision <= :revision"
+            + " and r.revision >= (select max(s.revision) from PostRevision s"
+            + " where s.postId = :postId and s.snapshot = true and s.revision <= :revision)"
+            + " order by r.revision")
+    List<PostRevision> getChain(@Param("postId") Long postId, @Param("revision") long revision);
+
+    @Modifying
+    @Query("delete from PostRevision r where r.postId = :postId")
+    void deleteByPostId(@Param("postId") Long postId);
+}
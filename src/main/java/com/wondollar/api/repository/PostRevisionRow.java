@@ -0,0 +1,6 @@
+package com.wondollar.api.repository;
+
+import java.time.LocalDateTime;
+
+public record PostRevisionRow(long revision, String title, boolean snapshot, LocalDateTime createdAt) {
+}
@@ -0,0 +1,4 @@
+package com.wondollar.api.repository;
+
+public record PostTagRow(Long postId, String tag) {
+}
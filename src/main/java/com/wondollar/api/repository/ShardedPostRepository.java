@@ -0,0 +1,301 @@
+package com.wondollar.api.repository;
+
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.shard.PostIdGenerator;
+import com.wondollar.api.shard.ShardContext;
+import com.wondollar.api.shard.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * PostRepository 를 샤드에 맞춰 부르는 계층.
+ * id 가 있는 작업은 id 에 담긴 샤드로 보내고, 새 글은 샤드를 돌아가며 넣고, 목록은 모든 샤드에서 모아 id 내림차순으로 합친다.
+ */
+@Component
+public class ShardedPostRepository {
+
+    private final PostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int shardCount;
+    private final ExecutorService executor;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ShardedPostRepository(PostRepository postRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 ShardRoutingDataSource dataSource) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.shardCount = dataSource.getShardCount();
+        this.executor = shardCount == 1 ? null : scatterExecutor(shardCount - 1, maxConnections(dataSource));
+    }
+
+    // 마지막 샤드는 부른 스레드가 직접 읽으므로 나머지 샤드 수만큼 나눠 보낸다.
+    // 샤드 하나에 동시에 나가는 쿼리는 어차피 커넥션 수를 넘지 못하므로 스레드도 그만큼까지만 늘리고,
+    // 그래도 모자라면 줄을 세우지 않고 부른 스레드가 직접 읽는다.
+    private static ExecutorService scatterExecutor(int fanOut, int connectionsPerShard) {
+        return new ThreadPoolExecutor(fanOut, fanOut * connectionsPerShard, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "post-shard-query");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static int maxConnections(ShardRoutingDataSource dataSource) {
+        return dataSource.getShards().get(0) instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public Post save(Post post) {
+        if (post.getId() != null) {
+            return ShardContext.call(PostIdGenerator.shardOf(post.getId()), () -> postRepository.save(post));
+        }
+        int shard = Math.floorMod(nextShard.getAndIncrement(), shardCount);
+        return ShardContext.call(shard, () -> postRepository.save(post));
+    }
+
+    public Optional<Post> findWithTagsById(Long id) {
+        return ShardContext.call(PostIdGenerator.shardOf(id), () -> postRepository.findWithTagsById(id));
+    }
+
+    /**
+     * id 가 속한 샤드에서 트랜잭션을 열고 work 를 실행한다. 안에서는 PostRepository 를 그대로 쓰면 된다.
+     */
+    public <T> T inTransaction(Long id, Supplier<T> work) {
+        return inShardTransaction(PostIdGenerator.shardOf(id), work);
+    }
+
+    public <T> T inShardTransaction(int shard, Supplier<T> work) {
+        return ShardContext.call(shard, () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    public <T> T inReadOnlyTransaction(Long id, Supplier<T> work) {
+        return ShardContext.call(PostIdGenerator.shardOf(id), () -> readOnlyTransactionTemplate.execute(status -> work.get()));
+    }
+
+    public List<Post> getList(PostSearch postSearch) {
+        if (shardCount == 1) {
+            return readPosts(0, () -> postRepository.getList(postSearch));
+        }
+
+        // 샤드마다 id 내림차순으로 chunk 개씩 읽어 합치고, 읽어 둔 글을 다 쓴 샤드만 마지막 id 다음부터 키셋으로 더 읽는다.
+        // 한 번에 읽는 양은 MAX_SIZE 를 넘지 않지만 offset 만큼은 읽고 버리므로, 깊은 페이지는 after(키셋)를 쓰는 편이 싸다.
+        long offset = postSearch.getOffset();
+        int limit = postSearch.getLimit();
+        int chunk = (int) Math.min(PostSearch.MAX_SIZE, offset + limit);
+
+        List<List<Post>> firstChunks = scatter(shard -> readChunk(shard, postSearch, chunk, postSearch.getAfter()));
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(Comparator.comparingLong((ShardCursor cursor) -> cursor.peek().getId()).reversed());
+        for (int shard = 0; shard < shardCount; shard++) {
+            ShardCursor cursor = new ShardCursor(shard, firstChunks.get(shard), chunk);
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+
+        List<Post> page = new ArrayList<>(limit);
+        long skipped = 0;
+        while (page.size() < limit && !heads.isEmpty()) {
+            ShardCursor cursor = heads.poll();
+            Post post = cursor.next();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(post);
+            }
+
+            if (!cursor.hasNext() && cursor.hasMore() && page.size() < limit) {
+                cursor.refill(readChunk(cursor.shard, postSearch, chunk, post.getId()));
+            }
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        return page;
+    }
+
+    public long getCount(PostSearch postSearch) {
+        long count = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            count += ShardContext.call(shard, () -> postRepository.getCount(postSearch));
+        }
+        return count;
+    }
+
+    public List<Post> getArchiveCandidates(int shard, long afterId, long beforeId, int limit) {
+        return readPosts(shard, () -> postRepository.getArchiveCandidates(afterId, beforeId, limit));
+    }
+
+    public List<Post> getListByIds(List<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = groupByShard(ids);
+        if (idsByShard.size() <= 1) {
+            return idsByShard.entrySet().stream()
+                    .findFirst()
+                    .map(entry -> readPosts(entry.getKey(), () -> postRepository.getListByIds(entry.getValue())))
+                    .orElse(List.of());
+        }
+        return mergeByIdDesc(scatter(shard -> idsByShard.containsKey(shard)
+                ? readPosts(shard, () -> postRepository.getListByIds(idsByShard.get(shard)))
+                : List.of()));
+    }
+
+    public List<PostTagRow> getTagsAfter(int shard, PostTagRow last, int limit) {
+        return ShardContext.call(shard, () -> postRepository.getTagsAfter(last, limit));
+    }
+
+    public List<PostTagRow> getTagsByPostIds(List<Long> ids) {
+        List<PostTagRow> rows = new ArrayList<>();
+        groupByShard(ids).forEach((shard, shardIds) ->
+                rows.addAll(ShardContext.call(shard, () -> postRepository.getTagsByPostIds(shardIds))));
+        return rows;
+    }
+
+    public static Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> idsByShard = new TreeMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(PostIdGenerator.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return idsByShard;
+    }
+
+    // 트랜잭션 안에서 태그까지 읽어 두어야 트랜잭션이 끝난 뒤에도 응답을 만들 수 있다.
+    private List<Post> readPosts(int shard, Supplier<List<Post>> query) {
+        return ShardContext.call(shard, () -> readOnlyTransactionTemplate.execute(status -> {
+            List<Post> posts = query.get();
+            posts.forEach(post -> post.getTags().size());
+            return posts;
+        }));
+    }
+
+    private List<Post> readChunk(int shard, PostSearch postSearch, int size, Long after) {
+        PostSearch chunkSearch = PostSearch.builder()
+                .page(1)
+                .size(size)
+                .tags(postSearch.getTags())
+                .match(postSearch.getMatch())
+                .after(after)
+                .build();
+        return readPosts(shard, () -> postRepository.getList(chunkSearch));
+    }
+
+    private List<List<Post>> scatter(IntFunction<List<Post>> query) {
+        List<CompletableFuture<List<Post>>> futures = new ArrayList<>(shardCount - 1);
+        for (int shard = 0; shard < shardCount - 1; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(target), executor));
+        }
+        List<Post> last = query.apply(shardCount - 1);
+
+        List<List<Post>> results = new ArrayList<>(shardCount);
+        futures.forEach(future -> results.add(future.join()));
+        results.add(last);
+        return results;
+    }
+
+    private static List<Post> mergeByIdDesc(List<List<Post>> shardResults) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparingLong((Cursor cursor) -> cursor.peek().getId()).reversed());
+        int total = 0;
+        for (List<Post> posts : shardResults) {
+            if (!posts.isEmpty()) {
+                heads.add(new Cursor(posts));
+                total += posts.size();
+            }
+        }
+
+        List<Post> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.next());
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static class Cursor {
+
+        private final List<Post> posts;
+        private int index;
+
+        Cursor(List<Post> posts) {
+            this.posts = posts;
+        }
+
+        Post peek() {
+            return posts.get(index);
+        }
+
+        Post next() {
+            return posts.get(index++);
+        }
+
+        boolean hasNext() {
+            return index < posts.size();
+        }
+    }
+
+    // 한 샤드에서 읽어 둔 chunk. chunk 를 꽉 채워 읽었으면 뒤에 글이 더 있을 수 있다.
+    private static class ShardCursor {
+
+        private final int shard;
+        private final int chunk;
+        private List<Post> posts;
+        private int index;
+
+        ShardCursor(int shard, List<Post> posts, int chunk) {
+            this.shard = shard;
+            this.posts = posts;
+            this.chunk = chunk;
+        }
+
+        Post peek() {
+            return posts.get(index);
+        }
+
+        Post next() {
+            return posts.get(index++);
+        }
+
+        boolean hasNext() {
+            return index < posts.size();
+        }
+
+        boolean hasMore() {
+            return posts.size() == chunk;
+        }
+
+        void refill(List<Post> posts) {
+            this.posts = posts;
+            this.index = 0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.wondollar.api.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate 가 만든 SQL 을 현재 스레드에서 capture 하는 동안만 모은다.
+ * 리포지토리가 실제로 내보내는 쿼리를 QueryPlanTest 가 EXPLAIN 하고, 다른 테스트가 쿼리 수를 세는 데 쓴다.
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록되어 있다.
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> capture(Runnable action) {
+        List<String> previous = STATEMENTS.get();
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                STATEMENTS.remove();
+            } else {
+                STATEMENTS.set(previous);
+            }
+        }
+        return statements;
+    }
+}
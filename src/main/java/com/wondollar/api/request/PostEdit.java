@@ -1,20 +1,27 @@
 package com.wondollar.api.request;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.List;
+
 @Getter
 public class PostEdit {
 
     @NotBlank(message = "타이틀을 입력해주세요.")
+    @Size(max = 100, message = "타이틀은 100자까지 입력할 수 있습니다.")
     private final String title;
     @NotBlank(message = "컨텐트를 입력해주세요.")
     private final String content;
+    @Size(max = 10, message = "태그는 10개까지 입력할 수 있습니다.")
+    private final List<@Size(max = 30, message = "태그는 30자까지 입력할 수 있습니다.") String> tags;
 
     @Builder
-    public PostEdit(String title, String content) {
+    public PostEdit(String title, String content, List<String> tags) {
         this.title = title;
         this.content = content;
+        this.tags = tags;
     }
 }
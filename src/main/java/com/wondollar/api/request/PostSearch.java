@@ -1,9 +1,13 @@
 package com.wondollar.api.request;
 
+import com.wondollar.api.domain.Post;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
+import java.util.Set;
+
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
@@ -11,18 +15,40 @@ import static java.lang.Math.min;
 @Setter
 public class PostSearch {
 
-    private static final int MAX_SIZE = 2000;
+    public static final int MAX_SIZE = 2000;
 
     private int page = 1;
     private int size = 10;
+    private List<String> tags = List.of();
+    private TagMatch match = TagMatch.ALL;
+    // 이전 페이지의 마지막 글 id. 있으면 offset 대신 id 기준으로 다음 페이지를 읽는다.
+    private Long after;
 
     @Builder
-    public PostSearch(int page, int size) {
+    public PostSearch(int page, int size, List<String> tags, TagMatch match, Long after) {
         this.page = page;
         this.size = size;
+        this.tags = tags == null ? List.of() : List.copyOf(Post.normalizeTags(tags));
+        this.match = match == null ? TagMatch.ALL : match;
+        this.after = after;
     }
 
     public long getOffset() {
+        if (after != null) {
+            return 0;
+        }
         return (long) (max(1, page) - 1) * min(size, MAX_SIZE);
     }
+
+    public int getLimit() {
+        return min(max(1, size), MAX_SIZE);
+    }
+
+    public boolean hasTags() {
+        return !tags.isEmpty();
+    }
+
+    public Set<String> getTagSet() {
+        return Set.copyOf(tags);
+    }
 }
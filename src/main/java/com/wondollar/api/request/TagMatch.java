@@ -0,0 +1,6 @@
+package com.wondollar.api.request;
+
+public enum TagMatch {
+    ALL,
+    ANY
+}
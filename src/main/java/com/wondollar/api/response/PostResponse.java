@@ -1,26 +1,56 @@
 package com.wondollar.api.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.wondollar.api.archive.ArchivedPost;
 import com.wondollar.api.domain.Post;
 import lombok.Builder;
 import lombok.Getter;
 
+import java.util.Collection;
+import java.util.List;
+
 @Getter
 public class PostResponse {
 
+    // Snowflake id 는 2^53 을 넘어 자바스크립트 number 로 읽으면 값이 바뀌므로 문자열로 보낸다.
+    @JsonSerialize(using = ToStringSerializer.class)
     private final Long id;
     private final String title;
     private final String content;
+    private final List<String> tags;
+    private final long views;
 
     public PostResponse(Post post) {
+        this(post, 0);
+    }
+
+    public PostResponse(Post post, long pendingViews) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.content = post.getContent();
+        this.tags = sorted(post.getTags());
+        this.views = post.getViews() + pendingViews;
+    }
+
+    public PostResponse(ArchivedPost post, long pendingViews) {
+        this.id = post.id();
+        this.title = post.title();
+        this.content = post.content();
+        this.tags = post.tags();
+        this.views = post.views() + pendingViews;
     }
 
     @Builder
-    public PostResponse(Long id, String title, String content) {
+    public PostResponse(Long id, String title, String content, Collection<String> tags, long views) {
         this.id = id;
         this.title = title.substring(0, Math.min(title.length(), 10));
         this.content = content;
+        this.tags = sorted(tags);
+        this.views = views;
+    }
+
+    private static List<String> sorted(Collection<String> tags) {
+        return tags == null ? List.of() : tags.stream().sorted().toList();
     }
 }
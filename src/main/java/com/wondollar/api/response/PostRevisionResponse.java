@@ -0,0 +1,28 @@
+package com.wondollar.api.response;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class PostRevisionResponse {
+
+    @JsonSerialize(using = ToStringSerializer.class)
+    private final Long postId;
+    private final long revision;
+    private final String title;
+    private final String content;
+    private final LocalDateTime createdAt;
+
+    @Builder
+    public PostRevisionResponse(Long postId, long revision, String title, String content, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.revision = revision;
+        this.title = title;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,20 @@
+package com.wondollar.api.response;
+
+import com.wondollar.api.repository.PostRevisionRow;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+public class PostRevisionSummary {
+
+    private final long revision;
+    private final String title;
+    private final LocalDateTime createdAt;
+
+    public PostRevisionSummary(PostRevisionRow row) {
+        this.revision = row.revision();
+        this.title = row.title();
+        this.createdAt = row.createdAt();
+    }
+}
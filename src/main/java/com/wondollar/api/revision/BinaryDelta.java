@@ -0,0 +1,154 @@
+package com.wondollar.api.revision;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 두 바이트 배열의 차이를 COPY(원본 위치, 길이) / INSERT(바이트) 명령으로 적는다.
+ * 원본을 BLOCK 바이트 단위로 해시해 두고, 대상 위치마다 롤링 해시로 같은 블록을 찾아 앞뒤로 늘린다.
+ * 글 한가운데 몇 문장을 고친 정도라면 차이는 고친 바이트 수 + 수십 바이트가 된다.
+ * <pre>
+ * | varint: 대상 길이 | { varint: (길이 << 1) | 명령, [COPY: varint 원본 위치] [INSERT: 바이트] }* |
+ * </pre>
+ */
+public final class BinaryDelta {
+
+    private static final int BLOCK = 16;
+    private static final int PRIME = 31;
+    private static final int INSERT = 0;
+    private static final int COPY = 1;
+
+    // 블록을 밀어낼 때 빼야 하는 PRIME^(BLOCK-1)
+    private static final int OUT_FACTOR;
+
+    static {
+        int factor = 1;
+        for (int i = 1; i < BLOCK; i++) {
+            factor *= PRIME;
+        }
+        OUT_FACTOR = factor;
+    }
+
+    private BinaryDelta() {
+    }
+
+    public static byte[] diff(byte[] base, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(16, target.length / 8));
+        writeVarLong(out, target.length);
+
+        int[] table = index(base);
+        int mask = table.length - 1;
+        int insertStart = 0;
+        int position = 0;
+        int hash = target.length >= BLOCK ? hash(target, 0) : 0;
+
+        while (position + BLOCK <= target.length) {
+            int candidate = table[slot(hash, mask)] - 1;
+            if (candidate >= 0 && Arrays.equals(base, candidate, candidate + BLOCK, target, position, position + BLOCK)) {
+                int start = position;
+                int from = candidate;
+                while (start > insertStart && from > 0 && base[from - 1] == target[start - 1]) {
+                    start--;
+                    from--;
+                }
+                int end = position + BLOCK;
+                int to = candidate + BLOCK;
+                while (end < target.length && to < base.length && base[to] == target[end]) {
+                    end++;
+                    to++;
+                }
+
+                writeInsert(out, target, insertStart, start);
+                writeVarLong(out, (long) (end - start) << 1 | COPY);
+                writeVarLong(out, from);
+
+                position = end;
+                insertStart = end;
+                if (position + BLOCK <= target.length) {
+                    hash = hash(target, position);
+                }
+                continue;
+            }
+
+            if (position + BLOCK < target.length) {
+                hash = (hash - target[position] * OUT_FACTOR) * PRIME + target[position + BLOCK];
+            }
+            position++;
+        }
+
+        writeInsert(out, target, insertStart, target.length);
+        return out.toByteArray();
+    }
+
+    public static byte[] apply(byte[] base, byte[] delta) {
+        ByteBuffer in = ByteBuffer.wrap(delta);
+        byte[] target = new byte[(int) readVarLong(in)];
+        int position = 0;
+        while (in.hasRemaining()) {
+            long header = readVarLong(in);
+            int length = (int) (header >>> 1);
+            if ((header & 1) == COPY) {
+                System.arraycopy(base, (int) readVarLong(in), target, position, length);
+            } else {
+                in.get(target, position, length);
+            }
+            position += length;
+        }
+        if (position != target.length) {
+            throw new IllegalArgumentException("차이 데이터가 손상되었습니다. expected = " + target.length + ", actual = " + position);
+        }
+        return target;
+    }
+
+    // 슬롯마다 원본 블록 시작 위치 + 1 을 담는다. 0 은 빈 슬롯이다.
+    private static int[] index(byte[] base) {
+        int blocks = base.length / BLOCK;
+        int[] table = new int[Integer.highestOneBit(Math.max(1, blocks) * 2 - 1) << 1];
+        int mask = table.length - 1;
+        for (int block = blocks - 1; block >= 0; block--) {
+            table[slot(hash(base, block * BLOCK), mask)] = block * BLOCK + 1;
+        }
+        return table;
+    }
+
+    private static int hash(byte[] bytes, int from) {
+        int hash = 0;
+        for (int i = from; i < from + BLOCK; i++) {
+            hash = hash * PRIME + bytes[i];
+        }
+        return hash;
+    }
+
+    private static int slot(int hash, int mask) {
+        return (hash * 0x9E3779B1 >>> 16 ^ hash) & mask;
+    }
+
+    private static void writeInsert(ByteArrayOutputStream out, byte[] target, int from, int to) {
+        if (from == to) {
+            return;
+        }
+        writeVarLong(out, (long) (to - from) << 1 | INSERT);
+        out.write(target, from, to - from);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,78 @@
+package com.wondollar.api.revision;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 리비전 본문 인코딩. 스냅숏은 본문 전체를 deflate 로 압축하고, 나머지는 직전 본문과의 BinaryDelta 만 남긴다.
+ */
+public final class RevisionCodec {
+
+    private RevisionCodec() {
+    }
+
+    public static byte[] snapshot(String content) {
+        byte[] bytes = toBytes(content);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static String restore(byte[] snapshot) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(snapshot);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsInput()) {
+                    throw new IllegalArgumentException("스냅숏 데이터가 잘렸습니다.");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("스냅숏 데이터가 손상되었습니다.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 스냅숏에 차이들을 차례로 적용한다. 중간 본문은 문자열로 바꾸지 않는다.
+     */
+    public static String reconstruct(byte[] snapshot, List<byte[]> deltas) {
+        byte[] content = toBytes(restore(snapshot));
+        for (byte[] delta : deltas) {
+            content = BinaryDelta.apply(content, delta);
+        }
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    public static byte[] delta(String base, String target) {
+        return BinaryDelta.diff(toBytes(base), toBytes(target));
+    }
+
+    public static String apply(String base, byte[] delta) {
+        return new String(BinaryDelta.apply(toBytes(base), delta), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] toBytes(String content) {
+        return content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.wondollar.api.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션이 커밋된 뒤에만 보여야 하는 일(메모리 인덱스 갱신, 다른 노드 알림)을 커밋 뒤로 미룬다.
+ * 롤백되면 버리고, 트랜잭션 밖에서 부르면 바로 실행한다.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable work) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            work.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                work.run();
+            }
+        });
+    }
+}
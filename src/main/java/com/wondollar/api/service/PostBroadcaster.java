@@ -0,0 +1,285 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.response.PostResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 새 글을 SSE 구독자에게 전달한다.
+ * 모든 구독자가 하나의 링 버퍼를 공유하고, 구독자는 자신이 읽을 시퀀스(cursor)만 가진다.
+ * 버퍼 한 바퀴 이상 뒤처진 구독자는 연결을 끊고, 클라이언트는 Last-Event-ID 로 다시 붙는다.
+ * 이벤트 id 는 글 id 라서 재시작하거나 다른 노드에 다시 붙어도 뜻이 같고, 버퍼에 남은 글 중 그보다 새 글부터 받는다.
+ * <p>
+ * dispatcher 스레드는 구독자마다 보낼 일이 있다는 신호만 주고, 실제 전송은 sender 풀에서 구독자별로 하나씩 돈다.
+ * 전송 하나가 writeTimeout 을 넘기면 checkSubscribers 가 그 구독자를 끊고 막힌 스레드를 깨우므로,
+ * 느린 클라이언트 하나가 다른 구독자의 전달을 writeTimeout 이상 붙잡지 못한다.
+ * 한동안 보낸 것이 없는 구독자에게는 heartbeat 주석을 보내 끊긴 연결을 찾아낸다.
+ */
+@Slf4j
+@Component
+public class PostBroadcaster {
+
+    private static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+    private static final int SENDER_THREADS = 8;
+    private static final long TIMEOUT = Duration.ofMinutes(30).toMillis();
+
+    private final AtomicReferenceArray<Entry> buffer = new AtomicReferenceArray<>(CAPACITY);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "post-broadcaster-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long writeTimeoutNanos;
+    private final long heartbeatNanos;
+
+    private volatile long published = -1;
+
+    public PostBroadcaster() {
+        this(Duration.ofSeconds(10), Duration.ofSeconds(15));
+    }
+
+    PostBroadcaster(Duration writeTimeout, Duration heartbeatInterval) {
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(new SseEmitter(TIMEOUT), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        long head = published;
+        Subscriber subscriber = lastEventId == null
+                ? new Subscriber(emitter, head + 1, head, 0)
+                : new Subscriber(emitter, startSequence(head, lastEventId), head, lastEventId);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        if (subscriber.cursor <= published) {
+            signal();
+        }
+        return emitter;
+    }
+
+    public synchronized void publish(PostResponse post) {
+        long sequence = published + 1;
+        buffer.set(index(sequence), new Entry(sequence, post));
+        published = sequence;
+        signal();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * writeTimeout 을 넘겨 보내고 있는 구독자를 끊고, heartbeat 간격 동안 보낸 것이 없는 구독자에게 heartbeat 를 보낸다.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void checkSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > writeTimeoutNanos) {
+                log.debug("전송이 {}ms 넘게 끝나지 않은 구독자를 끊습니다.", (now - sendingSince) / 1_000_000);
+                // emitter 는 보내는 동안 잠겨 있으므로 여기서 닫지 않고, 깨어난 sender 가 닫는다.
+                subscriber.closed = true;
+                subscribers.remove(subscriber);
+                subscriber.interruptSender();
+            } else if (sendingSince == 0 && now - subscriber.lastSentAt > heartbeatNanos) {
+                subscriber.heartbeatDue = true;
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(this::evict);
+    }
+
+    // 글 id 는 커밋 순서와 조금 어긋날 수 있으므로 버퍼를 끝까지 보고 lastEventId 보다 큰 글 중 가장 먼저 발행된 것부터 읽는다.
+    private long startSequence(long head, long lastEventId) {
+        long start = head + 1;
+        for (long sequence = head; sequence >= 0 && head - sequence < CAPACITY; sequence--) {
+            Entry entry = buffer.get(index(sequence));
+            if (entry == null || entry.sequence != sequence) {
+                break;
+            }
+            if (entry.post.getId() > lastEventId) {
+                start = sequence;
+            }
+        }
+        return start;
+    }
+
+    // 발행이 몰려도 dispatcher 작업은 하나만 돌고, 그 사이 들어온 신호는 다음 루프에서 처리한다.
+    private void signal() {
+        if (pending.getAndIncrement() == 0) {
+            dispatcher.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            for (Subscriber subscriber : subscribers) {
+                schedule(subscriber);
+            }
+            missed = pending.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // signal 과 같은 방식으로 구독자마다 sender 작업이 하나만 돌게 한다.
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.pending.getAndIncrement() == 0) {
+            senders.execute(() -> flush(subscriber));
+        }
+    }
+
+    private void flush(Subscriber subscriber) {
+        int missed = 1;
+        do {
+            if (subscriber.closed || !deliver(subscriber, published)) {
+                return;
+            }
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                if (!send(subscriber, SseEmitter.event().comment("heartbeat"))) {
+                    return;
+                }
+            }
+            missed = subscriber.pending.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private boolean deliver(Subscriber subscriber, long head) {
+        while (subscriber.cursor <= head) {
+            Entry entry = buffer.get(index(subscriber.cursor));
+            if (entry == null || entry.sequence != subscriber.cursor) {
+                log.debug("버퍼를 따라오지 못한 구독자를 끊습니다. cursor = {}, head = {}", subscriber.cursor, head);
+                evict(subscriber);
+                return false;
+            }
+
+            // 다시 붙기 전에 이미 받은 글은 건너뛴다. 그 뒤에 발행된 글은 id 와 상관없이 모두 보낸다.
+            if (subscriber.cursor <= subscriber.resumedAt && entry.post.getId() <= subscriber.lastEventId) {
+                subscriber.cursor++;
+                continue;
+            }
+
+            if (!send(subscriber, SseEmitter.event()
+                    .id(Long.toString(entry.post.getId()))
+                    .name("post")
+                    .data(entry.post))) {
+                return false;
+            }
+            subscriber.cursor++;
+        }
+        return true;
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.beginSend();
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            subscriber.closed = true;
+        } finally {
+            subscriber.endSend();
+        }
+
+        if (subscriber.closed) {
+            evict(subscriber);
+            return false;
+        }
+        return true;
+    }
+
+    private void evict(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscribers.remove(subscriber);
+        if (subscriber.completed.compareAndSet(false, true)) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static int index(long sequence) {
+        return (int) (sequence & MASK);
+    }
+
+    private record Entry(long sequence, PostResponse post) {
+    }
+
+    private static class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private final long resumedAt;
+        private final long lastEventId;
+        // 한 번에 sender 작업 하나만 바꾸고, pending 으로 다음 작업에 넘어간다.
+        private long cursor;
+
+        private volatile boolean closed;
+        private volatile boolean heartbeatDue;
+        // 0 이면 보내는 중이 아니다.
+        private volatile long sendingSince;
+        private volatile long lastSentAt = System.nanoTime();
+        private Thread sender;
+
+        Subscriber(SseEmitter emitter, long cursor, long resumedAt, long lastEventId) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+            this.resumedAt = resumedAt;
+            this.lastEventId = lastEventId;
+        }
+
+        synchronized void beginSend() {
+            sender = Thread.currentThread();
+            sendingSince = System.nanoTime();
+        }
+
+        // interruptSender 가 남긴 인터럽트는 여기서 지워 같은 스레드의 다음 전송에 번지지 않게 한다.
+        void endSend() {
+            synchronized (this) {
+                sender = null;
+                sendingSince = 0;
+                lastSentAt = System.nanoTime();
+            }
+            Thread.interrupted();
+        }
+
+        synchronized void interruptSender() {
+            if (sender != null) {
+                sender.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.domain.PostRevision;
+import com.wondollar.api.exception.RevisionNotFound;
+import com.wondollar.api.repository.PostRevisionRepository;
+import com.wondollar.api.repository.ShardedPostRepository;
+import com.wondollar.api.response.PostRevisionResponse;
+import com.wondollar.api.response.PostRevisionSummary;
+import com.wondollar.api.revision.RevisionCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 글 수정 이력. 리비전 번호는 수정 후의 post.version 이다.
+ * 리비전마다 직전 본문과의 차이만 저장하고, snapshotInterval 번마다 본문 전체를 저장해서
+ * 어느 리비전이든 스냅숏 하나 + 차이 snapshotInterval - 1 개 이하로 복원된다.
+ */
+@Service
+public class PostRevisionService {
+
+    private final PostRevisionRepository postRevisionRepository;
+    private final ShardedPostRepository shardedPostRepository;
+    private final int snapshotInterval;
+
+    public PostRevisionService(PostRevisionRepository postRevisionRepository,
+                               ShardedPostRepository shardedPostRepository,
+                               @Value("${wondollar.revision.snapshot-interval:16}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("snapshot-interval 은 1 이상이어야 합니다. snapshotInterval = " + snapshotInterval);
+        }
+        this.postRevisionRepository = postRevisionRepository;
+        this.shardedPostRepository = shardedPostRepository;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * 글이 있는 샤드의 트랜잭션 안에서, 수정이 flush 된 뒤에 부른다.
+     * 처음 수정되는 글은 수정 전 본문(리비전 0)도 스냅숏으로 남긴다.
+     */
+    public void record(Post post, long previousRevision, String previousTitle, String previousContent) {
+        LocalDateTime now = LocalDateTime.now();
+        if (previousRevision == 0) {
+            postRevisionRepository.save(PostRevision.builder()
+                    .postId(post.getId())
+                    .revision(0)
+                    .title(previousTitle)
+                    .snapshot(true)
+                    .data(RevisionCodec.snapshot(previousContent))
+                    .createdAt(now)
+                    .build());
+        }
+
+        long revision = post.getVersion();
+        boolean snapshot = revision % snapshotInterval == 0;
+        postRevisionRepository.save(PostRevision.builder()
+                .postId(post.getId())
+                .revision(revision)
+                .title(post.getTitle())
+                .snapshot(snapshot)
+                .data(snapshot
+                        ? RevisionCodec.snapshot(post.getContent())
+                        : RevisionCodec.delta(previousContent, post.getContent()))
+                .createdAt(now)
+                .build());
+    }
+
+    public void deleteAll(Long postId) {
+        postRevisionRepository.deleteByPostId(postId);
+    }
+
+    public List<PostRevisionSummary> getRevisions(Long postId) {
+        return shardedPostRepository.inReadOnlyTransaction(postId, () -> postRevisionRepository.getRows(postId)).stream()
+                .map(PostRevisionSummary::new)
+                .toList();
+    }
+
+    public PostRevisionResponse getRevision(Long postId, long revision) {
+        List<PostRevision> chain = shardedPostRepository.inReadOnlyTransaction(postId,
+                () -> postRevisionRepository.getChain(postId, revision));
+
+        PostRevision target = chain.isEmpty() ? null : chain.get(chain.size() - 1);
+        if (target == null || target.getRevision() != revision) {
+            throw new RevisionNotFound();
+        }
+
+        String content = RevisionCodec.reconstruct(chain.get(0).getData(), chain.subList(1, chain.size()).stream()
+                .map(PostRevision::getData)
+                .toList());
+
+        return PostRevisionResponse.builder()
+                .postId(postId)
+                .revision(revision)
+                .title(target.getTitle())
+                .content(content)
+                .createdAt(target.getCreatedAt())
+                .build();
+    }
+}
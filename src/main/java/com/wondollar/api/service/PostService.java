@@ -1,70 +1,234 @@
 package com.wondollar.api.service;
 
+import com.wondollar.api.archive.ArchiveTombstones;
+import com.wondollar.api.archive.ArchivedPost;
+import com.wondollar.api.archive.PostArchive;
+import com.wondollar.api.cache.CachedPost;
+import com.wondollar.api.cache.Invalidation;
+import com.wondollar.api.cache.InvalidationBus;
+import com.wondollar.api.cache.PostCache;
 import com.wondollar.api.domain.Post;
 import com.wondollar.api.domain.PostEditor;
 import com.wondollar.api.exception.PostNotFound;
 import com.wondollar.api.repository.PostRepository;
+import com.wondollar.api.repository.ShardedPostRepository;
 import com.wondollar.api.request.PostCreate;
 import com.wondollar.api.request.PostEdit;
 import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.request.TagMatch;
 import com.wondollar.api.response.PostResponse;
-import jakarta.transaction.Transactional;
+import com.wondollar.api.response.PostRevisionSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PostService {
     private final PostRepository postRepository;
+    private final ShardedPostRepository shardedPostRepository;
+    private final PostBroadcaster postBroadcaster;
+    private final TagIndex tagIndex;
+    private final ViewCounter viewCounter;
+    private final PostCache postCache;
+    private final InvalidationBus invalidationBus;
+    private final PostRevisionService postRevisionService;
+    private final PostArchive postArchive;
+    private final ArchiveTombstones archiveTombstones;
 
     public void write(PostCreate postCreate) {
         Post post = Post.builder()
                 .title(postCreate.getTitle())
                 .content(postCreate.getContent())
+                .tags(postCreate.getTags())
                 .build();
 
-        postRepository.save(post);
+        shardedPostRepository.save(post);
+        tagIndex.add(post.getId(), post.getTags());
+        invalidationBus.publish(post.getId(), post.getVersion());
+        postBroadcaster.publish(new PostResponse(post));
     }
 
     public PostResponse get(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+        CachedPost post = postCache.get(id)
+                .orElseGet(() -> load(id));
+
+        viewCounter.increment(id);
 
         return PostResponse.builder()
-                .id(post.getId())
-                .title(post.getTitle())
-                .content(post.getContent())
+                .id(post.id())
+                .title(post.title())
+                .content(post.content())
+                .tags(post.tags())
+                .views(post.views() + viewCounter.getPending(id))
                 .build();
     }
 
     public List<PostResponse> getList(PostSearch postSearch) {
-        return postRepository.getList(postSearch).stream()
-                .map(PostResponse::new)
+        List<Post> posts = tagIndex.findIds(postSearch)
+                .map(shardedPostRepository::getListByIds)
+                .orElseGet(() -> shardedPostRepository.getList(postSearch));
+
+        List<PostResponse> responses = posts.stream()
+                .map(post -> new PostResponse(post, viewCounter.getPending(post.getId())))
                 .toList();
+        if (postArchive.isEmpty() || isFilledBeforeArchive(postSearch, responses)) {
+            return responses;
+        }
+        return withArchived(postSearch, responses);
+    }
+
+    private boolean isFilledBeforeArchive(PostSearch postSearch, List<PostResponse> responses) {
+        return responses.size() == postSearch.getLimit()
+                && responses.get(responses.size() - 1).getId() > postArchive.getLastId();
+    }
+
+    // DB 의 글이 페이지를 다 채우지 못하면 더 오래된 글은 아카이브에 있으므로 이어서 읽는다.
+    // 아카이브의 마지막 id 이하인데 DB 에 남은 글(묘비로 사본을 가린 글)은 아카이브의 글과 id 순으로 섞는다.
+    // 이런 글이 있는 offset 페이지는 건너뛸 수를 DB 의 글 수로 어림하므로 정확하지 않을 수 있다.
+    private List<PostResponse> withArchived(PostSearch postSearch, List<PostResponse> responses) {
+        long lastId = postArchive.getLastId();
+        List<PostResponse> newer = responses.stream()
+                .filter(response -> response.getId() > lastId)
+                .toList();
+        List<PostResponse> stragglers = responses.stream()
+                .filter(response -> response.getId() <= lastId)
+                .toList();
+        Set<Long> stragglerIds = stragglers.stream()
+                .map(PostResponse::getId)
+                .collect(Collectors.toSet());
+
+        Long before = newer.isEmpty() ? postSearch.getAfter() : newer.get(newer.size() - 1).getId();
+        long skip = newer.isEmpty() && postSearch.getOffset() > 0
+                ? Math.max(0, postSearch.getOffset() - shardedPostRepository.getCount(postSearch))
+                : 0;
+        int limit = postSearch.getLimit() - newer.size();
+
+        Set<String> tags = postSearch.getTagSet();
+        List<ArchivedPost> archived = postArchive.getList(before, skip, limit,
+                post -> !archiveTombstones.contains(post.id()) && !stragglerIds.contains(post.id())
+                        && matches(post, tags, postSearch.getMatch()));
+
+        List<PostResponse> older = new ArrayList<>(stragglers);
+        archived.forEach(post -> older.add(new PostResponse(post, viewCounter.getPending(post.id()))));
+        older.sort(Comparator.comparing(PostResponse::getId).reversed());
+
+        List<PostResponse> merged = new ArrayList<>(newer);
+        merged.addAll(older.subList(0, Math.min(limit, older.size())));
+        return merged;
     }
 
-    @Transactional
+    private static boolean matches(ArchivedPost post, Set<String> tags, TagMatch match) {
+        if (tags.isEmpty()) {
+            return true;
+        }
+        return match == TagMatch.ANY
+                ? post.tags().stream().anyMatch(tags::contains)
+                : post.tags().containsAll(tags);
+    }
+
+    // 트랜잭션은 글이 있는 샤드에서 열어야 하므로 @Transactional 대신 ShardedPostRepository 에 맡긴다.
     public void edit(Long id, PostEdit postEdit) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(PostNotFound::new);
+        shardedPostRepository.inTransaction(id, () -> {
+            Post post = postRepository.findWithTagsById(id)
+                    .orElseThrow(PostNotFound::new);
 
-        PostEditor.PostEditorBuilder postEditorBuilder = post.toEditor();
+            Set<String> previousTags = Set.copyOf(post.getTags());
+            long previousVersion = post.getVersion();
+            String previousTitle = post.getTitle();
+            String previousContent = post.getContent();
+            PostEditor.PostEditorBuilder postEditorBuilder = post.toEditor();
 
-        PostEditor postEditor = postEditorBuilder.title(postEdit.getTitle())
-                .content(postEdit.getContent())
-                .build();
+            PostEditor postEditor = postEditorBuilder.title(postEdit.getTitle())
+                    .content(postEdit.getContent())
+                    .tags(postEdit.getTags())
+                    .build();
 
-        post.edit(postEditor);
+            post.edit(postEditor);
+
+            // 바뀐 버전을 알아야 다른 노드가 옛 버전을 다시 캐시하지 않으므로 여기서 update 를 내보낸다.
+            postRepository.flush();
+            if (post.getVersion() != previousVersion) {
+                postRevisionService.record(post, previousVersion, previousTitle, previousContent);
+            }
+            // 이 노드의 캐시에는 커밋 전에 묘비를 세워 그 사이 옛 버전을 다시 담지 않게 하고,
+            // 다른 노드에는 커밋된 뒤에 알려 새 버전을 읽게 한다.
+            long version = post.getVersion();
+            postCache.invalidate(id, version);
+
+            boolean tagsChanged = !previousTags.equals(post.getTags());
+            Set<String> tags = Set.copyOf(post.getTags());
+            AfterCommit.run(() -> {
+                if (tagsChanged) {
+                    tagIndex.remove(id, previousTags);
+                    tagIndex.add(id, tags);
+                }
+                invalidationBus.publish(id, version);
+            });
+            return post;
+        });
     }
 
+    // 수정한 적 없는 글은 리비전이 없으므로, 비었을 때만 글이 DB 나 아카이브에 있는지 본다.
+    public List<PostRevisionSummary> getRevisions(Long id) {
+        List<PostRevisionSummary> revisions = postRevisionService.getRevisions(id);
+        if (revisions.isEmpty() && shardedPostRepository.findWithTagsById(id).isEmpty() && findArchived(id).isEmpty()) {
+            throw new PostNotFound();
+        }
+        return revisions;
+    }
+
+    // 아카이브로 옮겨진 글도 지울 수 있다. 아카이브 파일은 고치지 않고 묘비를 남겨 가린다.
     public void delete(Long id) {
-        Post post = postRepository.findById(id)
+        shardedPostRepository.inTransaction(id, () -> {
+            Optional<Post> post = postRepository.findWithTagsById(id);
+            if (post.isEmpty() && findArchived(id).isEmpty()) {
+                throw new PostNotFound();
+            }
+            // 아카이브의 마지막 id 이하면 DB 에 남은 글이라도 아카이브에 옛 사본이 있을 수 있다.
+            boolean archived = id <= postArchive.getLastId();
+
+            Set<String> tags = post.map(found -> Set.copyOf(found.getTags())).orElse(Set.of());
+            postRevisionService.deleteAll(id);
+            post.ifPresent(postRepository::delete);
+            if (archived) {
+                archiveTombstones.record(id);
+            }
+            postCache.invalidate(id, Invalidation.DELETED);
+            AfterCommit.run(() -> {
+                tagIndex.remove(id, tags);
+                if (archived) {
+                    archiveTombstones.add(id);
+                }
+                invalidationBus.publish(id, Invalidation.DELETED);
+            });
+            return id;
+        });
+    }
+
+    // DB 에 없으면 아카이브로 옮겨진 글인지 본다. 아카이브의 글은 지울 수만 있고 고칠 수는 없다.
+    private CachedPost load(Long id) {
+        CachedPost cachedPost = shardedPostRepository.findWithTagsById(id)
+                .map(CachedPost::of)
+                .or(() -> findArchived(id).map(post ->
+                        new CachedPost(post.id(), post.title(), post.content(), post.tags(), post.views(), post.version())))
                 .orElseThrow(PostNotFound::new);
 
-        postRepository.delete(post);
+        postCache.put(cachedPost);
+        return cachedPost;
+    }
+
+    // 지웠거나 DB 에 새 버전이 남아 묘비로 가려진 사본은 없는 것으로 본다.
+    private Optional<ArchivedPost> findArchived(Long id) {
+        return postArchive.find(id)
+                .filter(post -> !archiveTombstones.contains(post.id()));
     }
 }
@@ -0,0 +1,260 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.cache.Invalidation;
+import com.wondollar.api.cache.InvalidationListener;
+import com.wondollar.api.repository.ShardedPostRepository;
+import com.wondollar.api.repository.PostTagRow;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.request.TagMatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 태그별 글 id 비트맵. 여러 태그를 동시에 거는 목록 조회는 DB 조인 대신 비트맵 교집합/합집합으로 id 를 고른다.
+ * 기동 직후 적재가 끝나기 전에는 비어 있는 결과 대신 Optional.empty() 를 돌려 DB 로 넘긴다.
+ * 글을 쓰고 고치고 지울 때는 커밋된 뒤에 add/remove 로 고치므로, 롤백된 변경은 비트맵에 남지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TagIndex implements InvalidationListener {
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ShardedPostRepository shardedPostRepository;
+    private final Map<String, Roaring64NavigableMap> bitmaps = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    /**
+     * DB 에서 비트맵을 새로 만든다. 기동 때 한 번 부르고, 테스트처럼 DB 를 통째로 비운 뒤에도 부른다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long count = 0;
+        for (int shard = 0; shard < shardedPostRepository.getShardCount(); shard++) {
+            count += load(shard);
+        }
+
+        ready = true;
+        log.info("태그 인덱스 적재 완료. tags = {}, rows = {}", bitmaps.size(), count);
+    }
+
+    private long load(int shard) {
+        long count = 0;
+        PostTagRow last = null;
+        List<PostTagRow> rows;
+        do {
+            rows = shardedPostRepository.getTagsAfter(shard, last, LOAD_BATCH_SIZE);
+            lock.writeLock().lock();
+            try {
+                for (PostTagRow row : rows) {
+                    bitmaps.computeIfAbsent(row.tag(), tag -> new Roaring64NavigableMap()).addLong(row.postId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            count += rows.size();
+            last = rows.isEmpty() ? last : rows.get(rows.size() - 1);
+        } while (rows.size() == LOAD_BATCH_SIZE);
+        return count;
+    }
+
+    public void add(Long postId, Collection<String> tags) {
+        lock.writeLock().lock();
+        try {
+            for (String tag : tags) {
+                bitmaps.computeIfAbsent(tag, key -> new Roaring64NavigableMap()).addLong(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId, Collection<String> tags) {
+        lock.writeLock().lock();
+        try {
+            for (String tag : tags) {
+                Roaring64NavigableMap bitmap = bitmaps.get(tag);
+                if (bitmap == null) {
+                    continue;
+                }
+                bitmap.removeLong(postId);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(tag);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 다른 노드에서 바뀐 글은 태그를 DB 에서 다시 읽어 비트맵을 고친다.
+    @Override
+    public void onInvalidated(List<Invalidation> invalidations) {
+        List<Long> postIds = invalidations.stream()
+                .map(Invalidation::postId)
+                .toList();
+        List<PostTagRow> rows = shardedPostRepository.getTagsByPostIds(postIds);
+
+        lock.writeLock().lock();
+        try {
+            Iterator<Roaring64NavigableMap> iterator = bitmaps.values().iterator();
+            while (iterator.hasNext()) {
+                Roaring64NavigableMap bitmap = iterator.next();
+                postIds.forEach(bitmap::removeLong);
+                if (bitmap.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+            for (PostTagRow row : rows) {
+                bitmaps.computeIfAbsent(row.tag(), tag -> new Roaring64NavigableMap()).addLong(row.postId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 태그가 두 개 이상인 검색의 결과 id 를 내림차순으로 돌려준다. 한 개짜리는 DB 인덱스로 충분하므로 다루지 않는다.
+     * 시작 위치는 rank/select 로 바로 찾으므로 깊은 페이지도 앞의 id 를 하나씩 넘기지 않는다.
+     */
+    public Optional<List<Long>> findIds(PostSearch postSearch) {
+        if (!ready || postSearch.getTags().size() < 2) {
+            return Optional.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (postSearch.getMatch() == TagMatch.ANY) {
+                return Optional.of(pageAny(postSearch));
+            }
+            return Optional.of(page(intersect(postSearch.getTags()), postSearch));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 가장 작은 비트맵부터 교집합을 구해야 중간 결과가 작게 유지된다.
+    private Roaring64NavigableMap intersect(List<String> tags) {
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        List<Roaring64NavigableMap> matched = new ArrayList<>();
+        for (String tag : tags) {
+            Roaring64NavigableMap bitmap = bitmaps.get(tag);
+            if (bitmap == null) {
+                return result;
+            }
+            matched.add(bitmap);
+        }
+        matched.sort(Comparator.comparingLong(Roaring64NavigableMap::getLongCardinality));
+
+        result.or(matched.get(0));
+        for (int i = 1; i < matched.size() && !result.isEmpty(); i++) {
+            result.and(matched.get(i));
+        }
+        return result;
+    }
+
+    private List<Long> page(Roaring64NavigableMap matched, PostSearch postSearch) {
+        int limit = postSearch.getLimit();
+        List<Long> ids = new ArrayList<>(limit);
+        for (long index = countBefore(matched, postSearch.getAfter()) - 1 - postSearch.getOffset(); index >= 0 && ids.size() < limit; index--) {
+            ids.add(matched.select(index));
+        }
+        return ids;
+    }
+
+    // 합집합을 만들지 않고 태그별 비트맵을 after 아래에서부터 내림차순으로 함께 읽는다. 같은 id 는 연달아 나오므로 한 번만 센다.
+    // offset 은 합친 결과에서 세어야 하므로 그만큼은 하나씩 넘긴다. 깊은 페이지는 after 를 쓰는 편이 싸다.
+    private List<Long> pageAny(PostSearch postSearch) {
+        PriorityQueue<TagCursor> heads = new PriorityQueue<>(Comparator.comparingLong(TagCursor::peek).reversed());
+        for (String tag : postSearch.getTagSet()) {
+            Roaring64NavigableMap bitmap = bitmaps.get(tag);
+            if (bitmap != null) {
+                TagCursor cursor = new TagCursor(bitmap, countBefore(bitmap, postSearch.getAfter()) - 1);
+                if (cursor.hasNext()) {
+                    heads.add(cursor);
+                }
+            }
+        }
+
+        int limit = postSearch.getLimit();
+        long skip = postSearch.getOffset();
+        long previous = -1;
+        List<Long> ids = new ArrayList<>(limit);
+        while (!heads.isEmpty() && ids.size() < limit) {
+            TagCursor cursor = heads.poll();
+            long id = cursor.next();
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+            if (id == previous) {
+                continue;
+            }
+            previous = id;
+            if (skip > 0) {
+                skip--;
+            } else {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    // after 보다 작은 id 의 수. 오름차순으로 이 위치 바로 앞이 내림차순 페이지의 첫 id 다.
+    private static long countBefore(Roaring64NavigableMap bitmap, Long after) {
+        if (after == null) {
+            return bitmap.getLongCardinality();
+        }
+        return after <= 0 ? 0 : bitmap.rankLong(after - 1);
+    }
+
+    // 비트맵 하나를 오름차순 위치 index 부터 거꾸로 읽는다.
+    private static class TagCursor {
+
+        private final Roaring64NavigableMap bitmap;
+        private long index;
+        private long current;
+
+        TagCursor(Roaring64NavigableMap bitmap, long index) {
+            this.bitmap = bitmap;
+            this.index = index;
+            if (index >= 0) {
+                current = bitmap.select(index);
+            }
+        }
+
+        boolean hasNext() {
+            return index >= 0;
+        }
+
+        long peek() {
+            return current;
+        }
+
+        long next() {
+            long id = current;
+            index--;
+            if (index >= 0) {
+                current = bitmap.select(index);
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.cache.PostCache;
+import com.wondollar.api.shard.PostIdGenerator;
+import com.wondollar.api.shard.ShardContext;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 글 조회수를 메모리에서 모았다가 주기적으로 한 번에 DB 에 더한다.
+ * 조회 요청은 LongAdder 를 올리기만 하므로 글 행에 락을 잡지 않는다.
+ * <p>
+ * 키는 요청 경로에서 이미 Long 으로 박싱되어 들어오므로 원시 타입 맵 대신 ConcurrentHashMap 을 쓴다.
+ * 한동안 조회가 없던 카운터는 맵에서 떼어낸 뒤 한 주기를 더 기다렸다가 마지막으로 합산해서,
+ * 떼어내는 순간 증가 중이던 요청의 조회수도 잃지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCounter {
+
+    private static final String FLUSH_SQL = "update post set views = views + ? where id = ?";
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostCache postCache;
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    private List<Counter> retired = new ArrayList<>();
+
+    public void increment(Long postId) {
+        Counter counter = counters.get(postId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(postId, Counter::new);
+        }
+        counter.views.increment();
+    }
+
+    public long getPending(Long postId) {
+        Counter counter = counters.get(postId);
+        return counter == null ? 0 : counter.pending();
+    }
+
+    @Scheduled(fixedDelayString = "${wondollar.view-count.flush-interval-millis:5000}")
+    public synchronized void flush() {
+        List<Object[]> deltas = new ArrayList<>();
+
+        List<Counter> retiring = retired;
+        retired = new ArrayList<>();
+        for (Counter counter : retiring) {
+            collect(counter, deltas);
+        }
+
+        for (Counter counter : counters.values()) {
+            if (!collect(counter, deltas) && counters.remove(counter.postId, counter)) {
+                retired.add(counter);
+            }
+        }
+
+        write(deltas);
+    }
+
+    @PreDestroy
+    public synchronized void flushAll() {
+        flush();
+        List<Object[]> deltas = new ArrayList<>();
+        retired.forEach(counter -> collect(counter, deltas));
+        retired = new ArrayList<>();
+        write(deltas);
+    }
+
+    private boolean collect(Counter counter, List<Object[]> deltas) {
+        long delta = counter.drain();
+        if (delta == 0) {
+            return false;
+        }
+        deltas.add(new Object[]{delta, counter.postId});
+        return true;
+    }
+
+    // 글이 있는 샤드마다 따로 배치를 보낸다.
+    private void write(List<Object[]> deltas) {
+        Map<Integer, List<Object[]>> deltasByShard = new TreeMap<>();
+        for (Object[] delta : deltas) {
+            deltasByShard.computeIfAbsent(PostIdGenerator.shardOf((Long) delta[1]), shard -> new ArrayList<>()).add(delta);
+        }
+        deltasByShard.forEach((shard, shardDeltas) -> ShardContext.run(shard, () -> writeShard(shardDeltas)));
+    }
+
+    private void writeShard(List<Object[]> deltas) {
+        for (int from = 0; from < deltas.size(); from += BATCH_SIZE) {
+            List<Object[]> batch = deltas.subList(from, Math.min(from + BATCH_SIZE, deltas.size()));
+            try {
+                jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                batch.forEach(delta -> postCache.evict((Long) delta[1]));
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 더해지도록 되돌려 놓는다.
+                log.error("조회수 반영에 실패했습니다. 다음 주기에 다시 시도합니다. count = {}", batch.size(), e);
+                batch.forEach(delta -> counters.computeIfAbsent((Long) delta[1], Counter::new).views.add((Long) delta[0]));
+            }
+        }
+    }
+
+    private static class Counter {
+
+        private final Long postId;
+        private final LongAdder views = new LongAdder();
+        // flush 가 DB 에 넘긴 누적값. flush 스레드만 쓴다.
+        private volatile long flushed;
+
+        Counter(Long postId) {
+            this.postId = postId;
+        }
+
+        long drain() {
+            long sum = views.sum();
+            long delta = sum - flushed;
+            flushed = sum;
+            return delta;
+        }
+
+        long pending() {
+            return views.sum() - flushed;
+        }
+    }
+}
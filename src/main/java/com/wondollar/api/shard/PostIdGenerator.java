@@ -0,0 +1,70 @@
+package com.wondollar.api.shard;
+
+/**
+ * Snowflake 방식의 글 id.
+ * <pre>
+ * | 41비트: EPOCH 이후 ms | 10비트: ms 안의 순번 | 6비트: 샤드 | 6비트: 노드(worker) |
+ * </pre>
+ * 순번을 샤드보다 높은 자리에 두어서, 한 노드가 만든 id 는 샤드와 상관없이 만든 순서대로 커진다.
+ * 그래서 샤드별 id 내림차순 결과를 합치기만 해도 전체 최신순이 된다.
+ */
+public final class PostIdGenerator {
+
+    public static final int MAX_SHARDS = 64;
+    public static final int MAX_WORKERS = 64;
+
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int WORKER_BITS = 6;
+    private static final int SHARD_BITS = 6;
+    private static final int SEQUENCE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static volatile int workerId;
+
+    private static long lastMillis = -1;
+    private static long sequence;
+
+    private PostIdGenerator() {
+    }
+
+    public static void configure(int workerId) {
+        if (workerId < 0 || workerId >= MAX_WORKERS) {
+            throw new IllegalArgumentException("workerId 는 0 이상 " + MAX_WORKERS + " 미만이어야 합니다. workerId = " + workerId);
+        }
+        PostIdGenerator.workerId = workerId;
+    }
+
+    public static synchronized long next(int shard) {
+        if (shard < 0 || shard >= MAX_SHARDS) {
+            throw new IllegalArgumentException("shard 는 0 이상 " + MAX_SHARDS + " 미만이어야 합니다. shard = " + shard);
+        }
+
+        // 시계가 뒤로 가도 마지막 ms 를 계속 써서 id 가 줄어들지 않게 한다.
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                now = lastMillis + 1;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+
+        return (now - EPOCH) << (SEQUENCE_BITS + SHARD_BITS + WORKER_BITS)
+                | sequence << (SHARD_BITS + WORKER_BITS)
+                | (long) shard << WORKER_BITS
+                | workerId;
+    }
+
+    /**
+     * epochMillis 이후에 만든 어떤 id 보다도 작거나 같은 id. 이보다 작은 id 는 그 전에 만든 글이다.
+     */
+    public static long firstIdAt(long epochMillis) {
+        return Math.max(0, epochMillis - EPOCH) << (SEQUENCE_BITS + SHARD_BITS + WORKER_BITS);
+    }
+
+    public static int shardOf(long id) {
+        return (int) ((id >>> WORKER_BITS) & (MAX_SHARDS - 1));
+    }
+}
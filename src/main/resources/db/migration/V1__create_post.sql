@@ -0,0 +1,17 @@
+create table post
+(
+    id      bigint generated by default as identity primary key,
+    title   varchar(100),
+    content clob
+);
+
+-- 글별 태그 조회(배치 로딩)는 기본 키 (post_id, tag) 로, 태그별 글 목록은 (tag, post_id desc) 로 읽는다.
+create table post_tag
+(
+    post_id bigint      not null,
+    tag     varchar(30) not null,
+    primary key (post_id, tag),
+    constraint fk_post_tag_post foreign key (post_id) references post (id)
+);
+
+create index idx_post_tag_tag_post_id on post_tag (tag, post_id desc);
@@ -0,0 +1,2 @@
+-- 조회수는 ViewCounter 가 모아서 주기적으로 더한다. 엔티티 수정(update)은 이 컬럼을 건드리지 않는다.
+alter table post add column views bigint default 0 not null;
@@ -0,0 +1,12 @@
+alter table post add column version bigint default 0 not null;
+
+-- 노드 간 캐시 무효화 묶음(wondollar.cache.transport=jdbc). 각 노드가 seq 순으로 폴링하고 오래된 행은 지운다.
+create table post_invalidation
+(
+    seq        bigint generated by default as identity primary key,
+    node_id    varchar(36) not null,
+    payload    blob        not null,
+    created_at timestamp   not null
+);
+
+create index idx_post_invalidation_created_at on post_invalidation (created_at);
@@ -0,0 +1,13 @@
+-- 글 수정 이력. revision 은 그 시점의 post.version 이다.
+-- snapshot 행은 본문 전체를 압축해 담고, 나머지 행은 직전 리비전 본문과의 차이만 담는다.
+create table post_revision
+(
+    id         bigint       not null primary key,
+    post_id    bigint       not null,
+    revision   bigint       not null,
+    title      varchar(100),
+    snapshot   boolean      not null,
+    data       blob         not null,
+    created_at timestamp    not null,
+    constraint uk_post_revision_post_id_revision unique (post_id, revision)
+);
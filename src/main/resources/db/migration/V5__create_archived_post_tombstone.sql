@@ -0,0 +1,9 @@
+-- 아카이브에 사본이 있지만 보여 주면 안 되는 글. 지운 글과, 옮기는 사이 수정되어 DB 에 남은 글의 옛 사본을 가린다.
+-- 글이 있는 샤드에 넣고, 지우지 않는다. 각 노드는 seq 순으로 새로 들어온 행만 읽는다.
+create table archived_post_tombstone
+(
+    seq        bigint    generated by default as identity primary key,
+    post_id    bigint    not null,
+    created_at timestamp not null,
+    constraint uk_archived_post_tombstone_post_id unique (post_id)
+);
@@ -0,0 +1,163 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.exception.PostNotFound;
+import com.wondollar.api.repository.PostRepository;
+import com.wondollar.api.repository.ShardedPostRepository;
+import com.wondollar.api.request.PostCreate;
+import com.wondollar.api.request.PostEdit;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.response.PostResponse;
+import com.wondollar.api.service.PostService;
+import com.wondollar.api.shard.PostIdGenerator;
+import com.wondollar.api.shard.ShardRoutingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive-tombstone",
+        "wondollar.archive.enabled=true",
+        "wondollar.archive.writer=true",
+        "wondollar.archive.block-size=4"
+})
+class ArchiveTombstonesTest {
+
+    @Autowired
+    private PostArchiver postArchiver;
+
+    @Autowired
+    private PostArchive postArchive;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ShardedPostRepository shardedPostRepository;
+
+    @Autowired
+    private ArchiveTombstones archiveTombstones;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("wondollar-archive").toString();
+        registry.add("wondollar.archive.directory", () -> directory);
+    }
+
+    @Test
+    @DisplayName("아카이브로 옮긴 글도 지울 수 있고, 지운 글은 조회와 목록에서 빠진다")
+    void deleteArchivedPostTest() {
+        // given
+        List<Long> ids = write(10);
+        postArchiver.archiveBefore(PostIdGenerator.firstIdAt(System.currentTimeMillis() + 1));
+        Long deletedId = ids.get(3);
+        assertTrue(postRepository.findById(deletedId).isEmpty());
+
+        // when
+        postService.delete(deletedId);
+
+        // then
+        assertThrows(PostNotFound.class, () -> postService.get(deletedId));
+        assertThrows(PostNotFound.class, () -> postService.delete(deletedId));
+        List<Long> listed = listAll();
+        assertFalse(listed.contains(deletedId));
+        assertTrue(listed.containsAll(ids.subList(4, 10)));
+    }
+
+    @Test
+    @DisplayName("덧붙인 뒤 지우기 전에 멈춘 글은 다음 실행 때 마저 옮기고, 그 사이 수정된 글은 DB 만 보인다")
+    void recoverInterruptedArchiveTest() {
+        // given
+        List<Long> ids = write(3);
+        List<Post> posts = shardedPostRepository.getArchiveCandidates(0, ids.get(0) - 1, ids.get(2) + 1, 10);
+        postArchive.append(posts.stream()
+                .map(ArchivedPost::of)
+                .toList());
+        Long editedId = ids.get(1);
+        postService.edit(editedId, PostEdit.builder().title("수정한 제목").content("수정한 내용").build());
+
+        // when
+        postArchiver.archiveBefore(ids.get(0));
+
+        // then
+        assertTrue(postRepository.findById(ids.get(0)).isEmpty());
+        assertTrue(postRepository.findById(ids.get(2)).isEmpty());
+        assertEquals("수정한 제목", postService.get(editedId).getTitle());
+
+        List<Long> listed = listAll();
+        assertEquals(listed.size(), listed.stream().distinct().count());
+        assertTrue(listed.containsAll(ids));
+
+        postService.delete(editedId);
+        assertThrows(PostNotFound.class, () -> postService.get(editedId));
+        assertFalse(listAll().contains(editedId));
+    }
+
+    @Test
+    @DisplayName("먼저 seq 를 받고 늦게 커밋된 묘비도 다음 refresh 에서 읽는다")
+    void lateCommittedTombstoneTest() throws Exception {
+        // given
+        archiveTombstones.refresh();
+        long lateId = 9_000_000_001L;
+        long committedId = 9_000_000_002L;
+
+        try (Connection connection = dataSource.getShards().get(0).getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "insert into archived_post_tombstone (post_id, created_at) values (?, current_timestamp)")) {
+                statement.setLong(1, lateId);
+                statement.executeUpdate();
+            }
+            jdbcTemplate.update("insert into archived_post_tombstone (post_id, created_at) values (?, current_timestamp)", committedId);
+
+            // when
+            archiveTombstones.refresh();
+            assertTrue(archiveTombstones.contains(committedId));
+            assertFalse(archiveTombstones.contains(lateId));
+            connection.commit();
+        }
+        archiveTombstones.refresh();
+
+        // then
+        assertTrue(archiveTombstones.contains(lateId));
+    }
+
+    private List<Long> write(int count) {
+        IntStream.rangeClosed(1, count).forEach(i -> postService.write(PostCreate.builder()
+                .title("제목 - " + i)
+                .content("내용 - " + i)
+                .build()));
+        return postService.getList(PostSearch.builder().page(1).size(count).build()).stream()
+                .map(PostResponse::getId)
+                .sorted()
+                .toList();
+    }
+
+    private List<Long> listAll() {
+        return postService.getList(PostSearch.builder().page(1).size(2000).build()).stream()
+                .map(PostResponse::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.config.ArchiveProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private PostArchive writer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writer = new PostArchive(properties(true));
+        writer.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("덧붙인 글을 id 로 찾고, 없는 id 는 빈 결과다")
+    void findTest() {
+        // given
+        writer.append(posts(1, 200));
+
+        // when, then
+        assertEquals("제목 - 100", writer.find(100).orElseThrow().title());
+        assertEquals(List.of("tag0"), writer.find(99).orElseThrow().tags());
+        assertTrue(writer.find(201).isEmpty());
+        assertEquals(200, writer.getLastId());
+    }
+
+    @Test
+    @DisplayName("기준 id 보다 작은 글을 내림차순으로 건너뛰고 걸러서 읽는다")
+    void getListTest() {
+        // given
+        writer.append(posts(1, 200));
+
+        // when
+        List<ArchivedPost> firstPage = writer.getList(null, 0, 5, post -> true);
+        List<ArchivedPost> skipped = writer.getList(null, 10, 5, post -> true);
+        List<ArchivedPost> before = writer.getList(130L, 0, 3, post -> post.tags().contains("tag1"));
+
+        // then
+        assertEquals(List.of(200L, 199L, 198L, 197L, 196L), ids(firstPage));
+        assertEquals(List.of(190L, 189L, 188L, 187L, 186L), ids(skipped));
+        assertEquals(List.of(127L, 124L, 121L), ids(before));
+    }
+
+    @Test
+    @DisplayName("세그먼트가 가득 차면 새 세그먼트로 넘어가고, 다른 노드는 refresh 로 따라 읽는다")
+    void segmentRollAndRefreshTest() throws Exception {
+        // given
+        PostArchive reader = new PostArchive(properties(false));
+        reader.open();
+        writer.append(posts(1, 100));
+        assertTrue(reader.isEmpty());
+
+        // when
+        writer.append(posts(101, 300));
+        reader.refresh();
+
+        // then
+        assertEquals(300, reader.getLastId());
+        assertEquals("제목 - 150", reader.find(150).orElseThrow().title());
+        assertEquals(300, reader.getList(null, 0, 1000, post -> true).size());
+        assertThrows(IllegalStateException.class, () -> reader.append(posts(301, 301)));
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("같은 디렉터리에 두 번째 writer 는 열 수 없다")
+    void singleWriterTest() {
+        PostArchive second = new PostArchive(properties(true));
+
+        assertThrows(IllegalStateException.class, second::open);
+    }
+
+    @Test
+    @DisplayName("이미 보관한 id 이하의 글은 덧붙일 수 없다")
+    void appendOrderTest() {
+        writer.append(posts(1, 10));
+
+        assertThrows(IllegalArgumentException.class, () -> writer.append(posts(5, 20)));
+    }
+
+    private ArchiveProperties properties(boolean writer) {
+        ArchiveProperties properties = new ArchiveProperties();
+        properties.setEnabled(true);
+        properties.setWriter(writer);
+        properties.setDirectory(directory.toString());
+        properties.setBlockSize(16);
+        properties.setSegmentBytes(4 * 1024);
+        return properties;
+    }
+
+    private static List<ArchivedPost> posts(long from, long to) {
+        List<ArchivedPost> posts = new ArrayList<>();
+        LongStream.rangeClosed(from, to).forEach(id -> posts.add(new ArchivedPost(id,
+                "제목 - " + id,
+                "내용 - " + id + " " + "오래된 글 ".repeat(20),
+                List.of("tag" + id % 3),
+                id,
+                1)));
+        return posts;
+    }
+
+    private static List<Long> ids(List<ArchivedPost> posts) {
+        return posts.stream()
+                .map(ArchivedPost::id)
+                .toList();
+    }
+}
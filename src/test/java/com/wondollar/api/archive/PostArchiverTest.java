@@ -0,0 +1,86 @@
+package com.wondollar.api.archive;
+
+import com.wondollar.api.repository.PostRepository;
+import com.wondollar.api.request.PostCreate;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.response.PostResponse;
+import com.wondollar.api.service.PostService;
+import com.wondollar.api.shard.PostIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archive",
+        "wondollar.archive.enabled=true",
+        "wondollar.archive.writer=true",
+        "wondollar.archive.block-size=8"
+})
+class PostArchiverTest {
+
+    @Autowired
+    private PostArchiver postArchiver;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("wondollar-archive").toString();
+        registry.add("wondollar.archive.directory", () -> directory);
+    }
+
+    @Test
+    @DisplayName("오래된 글을 아카이브로 옮겨도 조회와 목록 조회는 그대로 된다")
+    void archiveTest() {
+        // given
+        IntStream.rangeClosed(1, 30).forEach(i -> postService.write(PostCreate.builder()
+                .title("제목 - " + i)
+                .content("내용 - " + i)
+                .tags(List.of(i % 2 == 0 ? "java" : "spring"))
+                .build()));
+        Long archivedId = postService.getList(PostSearch.builder().page(3).size(10).build()).get(0).getId();
+
+        // when
+        int archived = postArchiver.archiveBefore(PostIdGenerator.firstIdAt(System.currentTimeMillis() + 1));
+        IntStream.rangeClosed(31, 35).forEach(i -> postService.write(PostCreate.builder()
+                .title("제목 - " + i)
+                .content("내용 - " + i)
+                .tags(List.of("java"))
+                .build()));
+
+        // then
+        assertEquals(30, archived);
+        assertEquals(5L, postRepository.count());
+        assertEquals("제목 - 10", postService.get(archivedId).getTitle());
+
+        List<PostResponse> firstPage = postService.getList(PostSearch.builder().page(1).size(10).build());
+        assertEquals("제목 - 35", firstPage.get(0).getTitle());
+        assertEquals("제목 - 26", firstPage.get(9).getTitle());
+
+        List<PostResponse> lastPage = postService.getList(PostSearch.builder().page(4).size(10).build());
+        assertEquals(5, lastPage.size());
+        assertEquals("제목 - 5", lastPage.get(0).getTitle());
+
+        List<PostResponse> javaPosts = postService.getList(PostSearch.builder()
+                .size(10)
+                .tags(List.of("java"))
+                .after(firstPage.get(4).getId())
+                .build());
+        assertEquals("제목 - 30", javaPosts.get(0).getTitle());
+        assertEquals("제목 - 12", javaPosts.get(9).getTitle());
+    }
+}
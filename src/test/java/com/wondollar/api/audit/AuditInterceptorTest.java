@@ -0,0 +1,30 @@
+package com.wondollar.api.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditInterceptorTest {
+
+    @Test
+    @DisplayName("19자리 글 id 도 읽고, long 을 넘거나 숫자가 아니면 -1 로 남긴다")
+    void postIdOfTest() {
+        assertEquals(1234567890123456789L, AuditInterceptor.postIdOf(request("1234567890123456789")));
+        assertEquals(Long.MAX_VALUE, AuditInterceptor.postIdOf(request("9223372036854775807")));
+        assertEquals(-1, AuditInterceptor.postIdOf(request("9223372036854775808")));
+        assertEquals(-1, AuditInterceptor.postIdOf(request("10000000000000000000")));
+        assertEquals(-1, AuditInterceptor.postIdOf(request("12a")));
+        assertEquals(-1, AuditInterceptor.postIdOf(new MockHttpServletRequest()));
+    }
+
+    private static MockHttpServletRequest request(String postId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("postId", postId));
+        return request;
+    }
+}
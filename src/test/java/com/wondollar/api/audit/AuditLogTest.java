@@ -0,0 +1,119 @@
+package com.wondollar.api.audit;
+
+import com.wondollar.api.config.AuditProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("기록한 호출이 gzip JSON Lines 파일에 남는다")
+    void writeTest() throws Exception {
+        // given
+        AuditLog auditLog = new AuditLog(properties(64 * 1024, 10));
+        auditLog.start();
+
+        // when
+        auditLog.record("127.0.0.1", AuditAction.EDIT, 3L, 200, TimeUnit.MILLISECONDS.toNanos(2));
+        auditLog.record("127.0.0.1", AuditAction.GET, 4L, 404, 1000L);
+        auditLog.record("10.0.0.1", AuditAction.LIST, -1, 503, 1000L);
+        assertTrue(auditLog.awaitWritten(5000));
+        auditLog.close();
+
+        // then
+        List<String> lines = readLines();
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("\"client\":\"127.0.0.1\",\"action\":\"EDIT\",\"postId\":3,\"status\":200,\"outcome\":\"SUCCESS\",\"latencyMicros\":2000"));
+        assertTrue(lines.get(1).contains("\"action\":\"GET\",\"postId\":4,\"status\":404,\"outcome\":\"REJECTED\""));
+        assertTrue(lines.get(2).contains("\"action\":\"LIST\",\"postId\":null,\"status\":503,\"outcome\":\"FAILED\""));
+        assertEquals(3, auditLog.getWritten());
+        assertEquals(0, auditLog.getDropped());
+    }
+
+    @Test
+    @DisplayName("파일이 maxFileBytes 를 넘으면 새 파일로 넘어가고 maxFiles 개만 남긴다")
+    void rollTest() throws Exception {
+        // given
+        AuditLog auditLog = new AuditLog(properties(1, 2));
+        auditLog.start();
+
+        // when
+        for (int i = 1; i <= 5; i++) {
+            auditLog.record("127.0.0.1", AuditAction.GET, i, 200, 1000L);
+            assertTrue(auditLog.awaitWritten(5000));
+        }
+        auditLog.close();
+
+        // then
+        assertEquals(2, listFiles().size());
+        List<String> lines = readLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"postId\":4"));
+        assertTrue(lines.get(1).contains("\"postId\":5"));
+    }
+
+    @Test
+    @DisplayName("꺼져 있으면 기록하지 않고 파일도 만들지 않는다")
+    void disabledTest() throws Exception {
+        // given
+        AuditProperties properties = properties(64 * 1024, 10);
+        properties.setEnabled(false);
+        AuditLog auditLog = new AuditLog(properties);
+        auditLog.start();
+
+        // when
+        auditLog.record("127.0.0.1", AuditAction.GET, 1L, 200, 1000L);
+        auditLog.close();
+
+        // then
+        assertEquals(0, auditLog.getWritten());
+        assertTrue(listFiles().isEmpty());
+    }
+
+    private AuditProperties properties(long maxFileBytes, int maxFiles) {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory.toString());
+        properties.setBufferSize(1024);
+        properties.setBatchSize(128);
+        properties.setMaxFileBytes(maxFileBytes);
+        properties.setMaxFiles(maxFiles);
+        return properties;
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jsonl.gz"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private List<String> readLines() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : listFiles()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(lines::add);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,105 @@
+package com.wondollar.api.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    @DisplayName("넣은 순서대로 꺼내고, 주소는 그대로 남는다")
+    void publishAndDrainTest() {
+        // given
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(8);
+        ringBuffer.tryPublish(1000L, "127.0.0.1", AuditAction.GET, 1L, 200, 10L);
+        ringBuffer.tryPublish(2000L, "::1", AuditAction.DELETE, 2L, 404, 20L);
+
+        // when
+        List<String> records = new ArrayList<>();
+        int drained = ringBuffer.drain(index -> records.add(ringBuffer.getTimestamp(index) + " "
+                + new String(ringBuffer.getAddresses(), ringBuffer.getAddressOffset(index), ringBuffer.getAddressLength(index))
+                + " " + ringBuffer.getAction(index)
+                + " " + ringBuffer.getPostId(index)
+                + " " + ringBuffer.getStatus(index)
+                + " " + ringBuffer.getLatencyNanos(index)), 10);
+
+        // then
+        assertEquals(2, drained);
+        assertEquals(List.of("1000 127.0.0.1 GET 1 200 10", "2000 ::1 DELETE 2 404 20"), records);
+        assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    @DisplayName("버퍼가 가득 차면 기다리지 않고 버린 개수를 센다")
+    void dropWhenFullTest() {
+        // given
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ringBuffer.tryPublish(i, "10.0.0.1", AuditAction.LIST, -1, 200, 1));
+        }
+
+        // when
+        boolean published = ringBuffer.tryPublish(5, "10.0.0.1", AuditAction.LIST, -1, 200, 1);
+
+        // then
+        assertFalse(published);
+        assertEquals(1, ringBuffer.getDropped());
+
+        ringBuffer.drain(index -> {
+        }, 2);
+        assertTrue(ringBuffer.tryPublish(6, "10.0.0.1", AuditAction.LIST, -1, 200, 1));
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 넣어도 기록은 꺼낸 것과 버린 것 중 하나로만 센다")
+    void concurrentPublishTest() throws Exception {
+        // given
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long[] lastSeen = new long[producers];
+        AtomicBoolean ordered = new AtomicBoolean(true);
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 1; i <= perProducer; i++) {
+                    ringBuffer.tryPublish(i, "10.0.0." + producer, AuditAction.GET, producer, 200, i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        // when
+        long[] drained = new long[1];
+        start.countDown();
+        while (threads.stream().anyMatch(Thread::isAlive) || !ringBuffer.isEmpty()) {
+            drained[0] += ringBuffer.drain(index -> {
+                int producer = (int) ringBuffer.getPostId(index);
+                long value = ringBuffer.getLatencyNanos(index);
+                if (value <= lastSeen[producer] || ringBuffer.getTimestamp(index) != value) {
+                    ordered.set(false);
+                }
+                lastSeen[producer] = value;
+            }, 256);
+        }
+
+        // then
+        assertEquals((long) producers * perProducer, drained[0] + ringBuffer.getDropped());
+        assertTrue(ordered.get());
+    }
+}
@@ -0,0 +1,127 @@
+package com.wondollar.api.cache;
+
+import com.wondollar.api.config.CacheProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationBusTest {
+
+    private static final long FLUSH_INTERVAL_MILLIS = 20;
+    private static final long STALENESS_BOUND_MILLIS = 500;
+
+    private final InMemoryInvalidationTransport.Hub hub = new InMemoryInvalidationTransport.Hub();
+    private final List<InvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        buses.forEach(InvalidationBus::close);
+    }
+
+    @Test
+    @DisplayName("한 노드에서 수정한 글은 다른 노드 캐시에서 제한 시간 안에 사라진다")
+    void boundedStalenessTest() throws Exception {
+        // given
+        PostCache[] caches = {cache(), cache(), cache()};
+        InvalidationBus writer = bus(caches[0]);
+        bus(caches[1]);
+        bus(caches[2]);
+        for (PostCache cache : caches) {
+            cache.put(post(1L, 0));
+        }
+
+        // when
+        long editedAt = System.nanoTime();
+        caches[0].invalidate(1L, 1);
+        writer.publish(1L, 1);
+
+        // then
+        for (PostCache cache : List.of(caches[1], caches[2])) {
+            while (cache.get(1L).isPresent()) {
+                assertTrue(elapsedMillis(editedAt) < STALENESS_BOUND_MILLIS, "무효화가 제한 시간 안에 도착하지 않았습니다.");
+                Thread.sleep(1);
+            }
+        }
+
+        // 무효화 전에 읽어 둔 옛 버전은 다시 들어가지 않고, 새 버전은 들어간다.
+        caches[1].put(post(1L, 0));
+        assertTrue(caches[1].get(1L).isEmpty());
+        caches[1].put(post(1L, 1));
+        assertEquals(1, caches[1].get(1L).orElseThrow().version());
+        assertTrue(caches[0].get(1L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("같은 글의 무효화는 한 묶음에서 가장 큰 버전 하나로 합쳐지고 자신에게는 돌아오지 않는다")
+    void batchingTest() throws Exception {
+        // given
+        List<Invalidation> received = new CopyOnWriteArrayList<>();
+        List<Invalidation> echoed = new CopyOnWriteArrayList<>();
+        InvalidationBus writer = new InvalidationBus(new InMemoryInvalidationTransport(hub), List.of(echoed::addAll), FLUSH_INTERVAL_MILLIS);
+        InvalidationBus reader = new InvalidationBus(new InMemoryInvalidationTransport(hub), List.of(received::addAll), FLUSH_INTERVAL_MILLIS);
+        writer.start();
+        reader.start();
+        buses.add(writer);
+        buses.add(reader);
+
+        // when
+        writer.publish(7L, 1);
+        writer.publish(7L, 3);
+        writer.publish(7L, 2);
+        writer.publish(8L, Invalidation.DELETED);
+
+        // then
+        long start = System.nanoTime();
+        while (received.size() < 2 && elapsedMillis(start) < STALENESS_BOUND_MILLIS) {
+            Thread.sleep(1);
+        }
+        assertTrue(received.contains(new Invalidation(7L, 3)));
+        assertTrue(received.contains(new Invalidation(8L, Invalidation.DELETED)));
+        assertEquals(2, received.size());
+        assertTrue(echoed.isEmpty());
+    }
+
+    @Test
+    @DisplayName("무효화 묶음은 id 차이와 버전을 가변 길이로 적어 작게 인코딩된다")
+    void codecTest() {
+        // given
+        List<Invalidation> invalidations = LongStream.range(100_000, 101_000)
+                .mapToObj(postId -> new Invalidation(postId, postId % 5))
+                .toList();
+
+        // when
+        byte[] payload = InvalidationCodec.encode(invalidations);
+
+        // then
+        assertTrue(payload.length <= 2 * invalidations.size() + 4, "payload = " + payload.length);
+        assertEquals(invalidations, InvalidationCodec.decode(payload));
+    }
+
+    private PostCache cache() {
+        CacheProperties properties = new CacheProperties();
+        properties.setTtlMillis(60_000);
+        return new PostCache(properties);
+    }
+
+    private InvalidationBus bus(PostCache cache) {
+        InvalidationBus bus = new InvalidationBus(new InMemoryInvalidationTransport(hub), List.of(cache), FLUSH_INTERVAL_MILLIS);
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+
+    private CachedPost post(Long id, long version) {
+        return new CachedPost(id, "제목", "내용", List.of(), 0, version);
+    }
+
+    private long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wondollar.api.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JdbcInvalidationTransportTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("공유 DB 로 보낸 무효화를 다른 노드가 폴링해서 받는다")
+    void pollTest() throws Exception {
+        // given
+        JdbcInvalidationTransport sender = new JdbcInvalidationTransport(jdbcTemplate, 10, 600_000);
+        JdbcInvalidationTransport receiver = new JdbcInvalidationTransport(jdbcTemplate, 10, 600_000);
+        List<Invalidation> sent = new CopyOnWriteArrayList<>();
+        List<Invalidation> received = new CopyOnWriteArrayList<>();
+        sender.start(payload -> sent.addAll(InvalidationCodec.decode(payload)));
+        receiver.start(payload -> received.addAll(InvalidationCodec.decode(payload)));
+
+        try {
+            // when
+            sender.send(InvalidationCodec.encode(List.of(new Invalidation(1L, 2), new Invalidation(5L, 1))));
+
+            // then
+            for (int i = 0; i < 200 && received.size() < 2; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(new Invalidation(1L, 2), new Invalidation(5L, 1)), received);
+            assertTrue(sent.isEmpty());
+        } finally {
+            sender.stop();
+            receiver.stop();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.wondollar.api.cache;
+
+import com.wondollar.api.config.CacheProperties;
+import com.wondollar.api.shard.PostIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostCacheTest {
+
+    @Test
+    @DisplayName("상한을 넘으면 오래 안 쓴 글만 빠지고, 자주 읽는 글은 남는다")
+    void lruTest() {
+        // given
+        PostCache cache = cache(32);
+        Long hot = PostIdGenerator.next(0);
+        cache.put(post(hot, 0));
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(post(PostIdGenerator.next(0), 0));
+            cache.get(hot);
+        }
+
+        // then
+        assertTrue(cache.size() <= 32, "size = " + cache.size());
+        assertTrue(cache.get(hot).isPresent());
+    }
+
+    @Test
+    @DisplayName("캐시가 가득 차 글이 밀려나도 묘비는 남아 옛 버전이 다시 들어오지 못한다")
+    void tombstoneSurvivesEvictionTest() {
+        // given
+        PostCache cache = cache(32);
+        Long edited = PostIdGenerator.next(0);
+        Long deleted = PostIdGenerator.next(0);
+        cache.put(post(edited, 1));
+        cache.invalidate(edited, 2);
+        cache.invalidate(deleted, Invalidation.DELETED);
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(post(PostIdGenerator.next(0), 0));
+        }
+        cache.put(post(edited, 1));
+        cache.put(post(deleted, 5));
+
+        // then
+        assertTrue(cache.get(edited).isEmpty());
+        assertTrue(cache.get(deleted).isEmpty());
+        cache.put(post(edited, 2));
+        assertEquals(2, cache.get(edited).orElseThrow().version());
+    }
+
+    private PostCache cache(int maxEntries) {
+        CacheProperties properties = new CacheProperties();
+        properties.setTtlMillis(60_000);
+        properties.setMaxEntries(maxEntries);
+        return new PostCache(properties);
+    }
+
+    private CachedPost post(Long id, long version) {
+        return new CachedPost(id, "제목", "내용", List.of(), 0, version);
+    }
+}
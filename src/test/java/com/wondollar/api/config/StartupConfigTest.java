@@ -0,0 +1,38 @@
+package com.wondollar.api.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("fast-startup")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fast-startup")
+class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Test
+    @DisplayName("빠른 기동 프로필에서도 @Scheduled 작업을 가진 빈은 기동 시점에 만들어진다")
+    void backgroundBeansTest() {
+        // given
+        List<String> backgroundBeans = Arrays.stream(beanFactory.getBeanDefinitionNames())
+                .filter(beanName -> {
+                    Class<?> beanType = beanFactory.getType(beanName, false);
+                    return beanType != null && StartupConfig.isBackground(beanType);
+                })
+                .toList();
+
+        // then
+        assertTrue(backgroundBeans.containsAll(List.of("postArchiver", "postArchive", "viewCounter")));
+        backgroundBeans.forEach(beanName ->
+                assertTrue(beanFactory.containsSingleton(beanName), () -> beanName + " 이 만들어지지 않았습니다."));
+    }
+}
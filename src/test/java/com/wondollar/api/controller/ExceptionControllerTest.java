@@ -0,0 +1,41 @@
+package com.wondollar.api.controller;
+
+import com.wondollar.api.domain.Post;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ExceptionControllerTest {
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ConflictingController())
+            .setControllerAdvice(new ExceptionController())
+            .build();
+
+    @Test
+    @DisplayName("동시 수정으로 버전이 맞지 않으면 409 를 반환한다")
+    void optimisticLockingFailureTest() throws Exception {
+        mockMvc.perform(patch("/posts/{postId}", 1L))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("409"))
+                .andExpect(jsonPath("$.message").value("다른 요청이 먼저 글을 수정했습니다. 다시 조회한 뒤 시도해주세요."))
+                .andDo(print());
+    }
+
+    // 컴포넌트 스캔에 잡히지 않도록 @Controller 를 붙이지 않고 standaloneSetup 에만 넘긴다.
+    static class ConflictingController {
+
+        @PatchMapping("/posts/{postId}")
+        public void edit(@PathVariable Long postId) {
+            throw new ObjectOptimisticLockingFailureException(Post.class, postId);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.wondollar.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wondollar.api.config.WriteLimitProperties;
 import com.wondollar.api.domain.Post;
+import com.wondollar.api.limiter.ClientRateLimiter;
 import com.wondollar.api.repository.PostRepository;
 import com.wondollar.api.request.PostCreate;
 import com.wondollar.api.request.PostEdit;
@@ -11,13 +13,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -27,6 +37,19 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 class PostControllerTest {
 
+    // 요청이 얼마나 빨리 끝나는지와 상관없이 쓰기 제한을 확인하도록 쓰기 제한의 시각은 테스트가 직접 옮긴다.
+    private static final AtomicLong NOW = new AtomicLong();
+
+    @TestConfiguration
+    static class RateLimiterClockConfig {
+
+        @Bean
+        @Primary
+        ClientRateLimiter testClientRateLimiter(WriteLimitProperties properties) {
+            return new ClientRateLimiter(properties, NOW::get);
+        }
+    }
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -125,7 +148,7 @@ class PostControllerTest {
         // when, then
         mockMvc.perform(get("/posts/{postId}", post.getId()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(post.getId()))
+                .andExpect(jsonPath("$.id").value(String.valueOf(post.getId())))
                 .andExpect(jsonPath("$.title").value("12345"))
                 .andExpect(jsonPath("$.content").value(post.getContent()))
                 .andDo(print());
@@ -228,4 +251,119 @@ class PostControllerTest {
                 .andExpect(status().isNotFound())
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("글 작성 시 스트림 구독자에게 새 글이 전달된다")
+    void streamNewPostTest() throws Exception {
+        // given
+        MvcResult subscription = mockMvc.perform(get("/posts/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        PostCreate request = PostCreate.builder()
+                .title("스트림 제목")
+                .content("스트림 내용")
+                .build();
+
+        // when
+        mockMvc.perform(post("/posts")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                )
+                .andExpect(status().isOk());
+
+        // then
+        String body = "";
+        for (int i = 0; i < 50 && !body.contains("스트림 내용"); i++) {
+            Thread.sleep(100);
+            body = subscription.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        }
+        assertTrue(body.contains("event:post"));
+        assertTrue(body.contains("스트림 제목"));
+    }
+
+    @Test
+    @DisplayName("한 클라이언트가 글 작성을 너무 많이 요청하면 429 를 반환한다")
+    void writeRateLimitTest() throws Exception {
+        // given
+        String jsonRequest = objectMapper.writeValueAsString(PostCreate.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build());
+
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(post("/posts")
+                            .with(request -> {
+                                request.setRemoteAddr("10.0.0.27");
+                                return request;
+                            })
+                            .contentType(APPLICATION_JSON)
+                            .content(jsonRequest)
+                    )
+                    .andExpect(status().isOk());
+        }
+
+        // when, then
+        mockMvc.perform(post("/posts")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.27");
+                            return request;
+                        })
+                        .contentType(APPLICATION_JSON)
+                        .content(jsonRequest)
+                )
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value("429"))
+                .andDo(print());
+
+        // 초당 5개이므로 0.2초가 지나면 하나가 다시 채워진다.
+        NOW.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        mockMvc.perform(post("/posts")
+                        .with(request -> {
+                            request.setRemoteAddr("10.0.0.27");
+                            return request;
+                        })
+                        .contentType(APPLICATION_JSON)
+                        .content(jsonRequest)
+                )
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("글 수정 이력 목록과 특정 리비전을 조회한다")
+    void revisionTest() throws Exception {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("처음 제목")
+                .content("처음 내용")
+                .build());
+
+        mockMvc.perform(patch("/posts/{postId}", post.getId())
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(PostEdit.builder()
+                                .title("고친 제목")
+                                .content("고친 내용")
+                                .build()))
+                )
+                .andExpect(status().isOk());
+
+        // when, then
+        mockMvc.perform(get("/posts/{postId}/revisions", post.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$[0].revision").value(1))
+                .andExpect(jsonPath("$[1].title").value("처음 제목"))
+                .andDo(print());
+
+        mockMvc.perform(get("/posts/{postId}/revisions/{revision}", post.getId(), 0))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value("처음 내용"))
+                .andDo(print());
+
+        mockMvc.perform(get("/posts/{postId}/revisions/{revision}", post.getId(), 5))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("404"))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,107 @@
+package com.wondollar.api.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wondollar.api.archive.PostArchiver;
+import com.wondollar.api.repository.PostRepository;
+import com.wondollar.api.request.PostCreate;
+import com.wondollar.api.shard.ShardContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-web-0",
+        "wondollar.shard.count=3",
+        "wondollar.shard.worker-id=0",
+        "wondollar.shard.url-template=jdbc:h2:mem:sharded-web-%d",
+        "wondollar.archive.enabled=true",
+        "wondollar.archive.writer=true",
+        "wondollar.write-limit.enabled=false"
+})
+class ShardedPostControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostArchiver postArchiver;
+
+    @DynamicPropertySource
+    static void archiveDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("wondollar-archive").toString();
+        registry.add("wondollar.archive.directory", () -> directory);
+    }
+
+    @Test
+    @DisplayName("한 요청 안에서 여러 샤드를 차례로 읽어도 샤드마다 자기 커넥션을 쓴다")
+    void shardSwitchInRequestTest() throws Exception {
+        // given
+        for (int i = 1; i <= 31; i++) {
+            mockMvc.perform(post("/posts")
+                            .contentType(APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(PostCreate.builder()
+                                    .title("제목 - " + i)
+                                    .content("내용 - " + i)
+                                    .build())))
+                    .andExpect(status().isOk());
+        }
+        List<Long> ids = getIds("/posts?page=1&size=31");
+        List<Long> oldest = ids.stream().sorted().toList();
+        postArchiver.archiveBefore(oldest.get(17));
+
+        // 샤드마다 남은 글 수가 달라야 잘못된 커넥션으로 센 수가 드러난다.
+        List<Long> counts = IntStream.range(0, 3)
+                .mapToObj(shard -> ShardContext.call(shard, postRepository::count))
+                .toList();
+        assertNotEquals(counts.get(0) * 3, counts.stream().mapToLong(Long::longValue).sum());
+
+        // when
+        // DB 의 글보다 깊은 offset 페이지는 샤드마다 글 수를 세어 아카이브에서 건너뛸 수를 정한다.
+        List<Long> page = getIds("/posts?page=4&size=5");
+
+        // then
+        List<Long> expected = ids.stream().sorted(Comparator.reverseOrder()).toList().subList(15, 20);
+        assertEquals(expected, page);
+    }
+
+    private List<Long> getIds(String url) throws Exception {
+        String body = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode post : objectMapper.readTree(body)) {
+            ids.add(post.get("id").asLong());
+        }
+        return ids;
+    }
+}
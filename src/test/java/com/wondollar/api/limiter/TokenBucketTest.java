@@ -0,0 +1,66 @@
+package com.wondollar.api.limiter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("burst 만큼은 바로 허용하고 그 이후는 거절한다")
+    void burstTest() {
+        // given
+        TokenBucket bucket = new TokenBucket(5, 3, 0);
+
+        // when, then
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+    }
+
+    @Test
+    @DisplayName("시간이 지나면 초당 허용량만큼 다시 채워진다")
+    void refillTest() {
+        // given
+        TokenBucket bucket = new TokenBucket(5, 1, 0);
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(SECOND / 10));
+
+        // when, then
+        assertTrue(bucket.tryAcquire(SECOND / 5));
+        assertFalse(bucket.isFull(SECOND / 5));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 요청해도 burst 를 넘겨 허용하지 않는다")
+    void concurrentAcquireTest() throws Exception {
+        // given
+        TokenBucket bucket = new TokenBucket(0.001, 100, 0);
+        AtomicInteger acquired = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryAcquire(0)) {
+                    acquired.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // then
+        assertEquals(100, acquired.get());
+    }
+}
@@ -0,0 +1,46 @@
+package com.wondollar.api.limiter;
+
+import com.wondollar.api.config.WriteLimitProperties;
+import com.wondollar.api.exception.ServerOverloaded;
+import com.wondollar.api.exception.TooManyRequests;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteLimitInterceptorTest {
+
+    @Test
+    @DisplayName("부하 차단으로 거절된 쓰기 요청은 클라이언트의 토큰을 쓰지 않는다")
+    void sheddingDoesNotConsumeTokenTest() {
+        // given
+        WriteLimitProperties properties = new WriteLimitProperties();
+        properties.setPermitsPerSecond(0.001);
+        properties.setBurst(1);
+        properties.setMinSamples(1);
+        DbLatencyMonitor dbLatencyMonitor = new DbLatencyMonitor(properties);
+        WriteLimitInterceptor interceptor = new WriteLimitInterceptor(properties, new ClientRateLimiter(properties), dbLatencyMonitor);
+
+        IMetricsTracker tracker = dbLatencyMonitor.create("test", null);
+        tracker.recordConnectionTimeout();
+        dbLatencyMonitor.evaluate();
+
+        // when
+        assertThrows(ServerOverloaded.class, () -> interceptor.preHandle(write(), new MockHttpServletResponse(), null));
+        dbLatencyMonitor.evaluate();
+
+        // then
+        assertFalse(dbLatencyMonitor.isOverloaded());
+        assertTrue(interceptor.preHandle(write(), new MockHttpServletResponse(), null));
+        assertThrows(TooManyRequests.class, () -> interceptor.preHandle(write(), new MockHttpServletResponse(), null));
+    }
+
+    private static MockHttpServletRequest write() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/posts");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
@@ -0,0 +1,101 @@
+package com.wondollar.api.repository;
+
+import com.wondollar.api.cache.JdbcInvalidationTransport;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.request.TagMatch;
+import com.wondollar.api.shard.ShardContext;
+import com.wondollar.api.shard.ShardRoutingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 자주 실행되는 쿼리의 실행 계획을 H2 에서 확인한다. 인덱스가 빠지거나 쿼리 모양이 바뀌어 전체 스캔이 생기면 빌드가 깨진다.
+ * 리포지토리 메서드를 실제로 불러 Hibernate 가 내보내는 SQL 을 SqlCapture 로 모으고, 그 SQL 을 모든 샤드에서 EXPLAIN 한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plan-0",
+        "wondollar.shard.count=2",
+        "wondollar.shard.worker-id=0",
+        "wondollar.shard.url-template=jdbc:h2:mem:query-plan-%d"
+})
+class QueryPlanTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardRoutingDataSource dataSource;
+
+    @Test
+    @DisplayName("요청 경로의 쿼리는 어느 샤드에서도 전체 스캔하지 않는다")
+    void noFullScanTest() {
+        // given
+        Map<String, List<String>> hotQueries = captureHotQueries();
+
+        // when
+        List<String> fullScans = new ArrayList<>();
+        for (int shard = 0; shard < dataSource.getShardCount(); shard++) {
+            int current = shard;
+            hotQueries.forEach((name, statements) -> {
+                assertFalse(statements.isEmpty(), "실행 계획을 볼 SQL 을 모으지 못했습니다. query = " + name);
+                statements.forEach(sql -> {
+                    String plan = ShardContext.call(current, () -> explain(sql));
+                    if (plan != null && plan.contains("tableScan")) {
+                        fullScans.add(name + " (shard " + current + ") -> " + plan);
+                    }
+                });
+            });
+        }
+
+        // then
+        assertEquals(List.of(), fullScans);
+    }
+
+    // 요청 경로에서 도는 쿼리들. 리포지토리에 조회 경로가 늘면 여기에도 더한다.
+    private Map<String, List<String>> captureHotQueries() {
+        Map<String, List<String>> queries = new LinkedHashMap<>();
+        queries.put("글 1개 조회", SqlCapture.capture(() -> postRepository.findWithTagsById(1L)));
+        queries.put("글 목록 첫 페이지", SqlCapture.capture(() -> postRepository.getList(search(1, null, List.of(), null))));
+        queries.put("글 목록 offset 페이지", SqlCapture.capture(() -> postRepository.getList(search(5, null, List.of(), null))));
+        queries.put("글 목록 다음 페이지", SqlCapture.capture(() -> postRepository.getList(search(1, 100L, List.of(), null))));
+        queries.put("태그 하나로 거른 글 목록", SqlCapture.capture(() ->
+                postRepository.getList(search(1, null, List.of("java"), TagMatch.ALL))));
+        queries.put("모든 태그(ALL)로 거른 글 목록", SqlCapture.capture(() ->
+                postRepository.getList(search(1, 100L, List.of("java", "spring"), TagMatch.ALL))));
+        queries.put("아무 태그(ANY)로 거른 글 목록", SqlCapture.capture(() ->
+                postRepository.getList(search(1, 100L, List.of("java", "spring"), TagMatch.ANY))));
+        queries.put("태그 인덱스로 고른 글 목록", SqlCapture.capture(() -> postRepository.getListByIds(List.of(1L, 2L, 3L))));
+        queries.put("글 목록의 태그 배치 로딩", SqlCapture.capture(() -> postRepository.getTagsByPostIds(List.of(1L, 2L, 3L))));
+        queries.put("노드 간 무효화 폴링", List.of(JdbcInvalidationTransport.POLL_SQL));
+        return queries;
+    }
+
+    private static PostSearch search(int page, Long after, List<String> tags, TagMatch match) {
+        return PostSearch.builder()
+                .page(page)
+                .size(10)
+                .after(after)
+                .tags(tags)
+                .match(match)
+                .build();
+    }
+
+    // 바인딩하지 않은 파라미터(?)가 있어도 H2 는 EXPLAIN 에서 계획만 세운다.
+    private String explain(String sql) {
+        return jdbcTemplate.query(connection -> connection.prepareStatement("explain " + sql),
+                resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+    }
+}
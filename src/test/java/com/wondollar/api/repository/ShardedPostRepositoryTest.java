@@ -0,0 +1,132 @@
+package com.wondollar.api.repository;
+
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.exception.PostNotFound;
+import com.wondollar.api.request.PostCreate;
+import com.wondollar.api.request.PostEdit;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.response.PostResponse;
+import com.wondollar.api.service.PostService;
+import com.wondollar.api.shard.PostIdGenerator;
+import com.wondollar.api.shard.ShardContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharded-0",
+        "wondollar.shard.count=3",
+        "wondollar.shard.worker-id=0",
+        "wondollar.shard.url-template=jdbc:h2:mem:sharded-%d"
+})
+class ShardedPostRepositoryTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private ShardedPostRepository shardedPostRepository;
+
+    @BeforeEach
+    void clean() {
+        for (int shard = 0; shard < 3; shard++) {
+            ShardContext.run(shard, postRepository::deleteAll);
+        }
+        IntStream.rangeClosed(1, 30).forEach(i -> postService.write(PostCreate.builder()
+                .title("제목 - " + i)
+                .content("내용 - " + i)
+                .build()));
+    }
+
+    @Test
+    @DisplayName("새 글은 샤드에 고르게 나뉘고, id 에 담긴 샤드에 저장된다")
+    void distributeTest() {
+        for (int shard = 0; shard < 3; shard++) {
+            int target = shard;
+            assertEquals(10L, ShardContext.call(shard, postRepository::count));
+            ShardContext.call(shard, postRepository::findAll)
+                    .forEach(post -> assertEquals(target, PostIdGenerator.shardOf(post.getId())));
+        }
+    }
+
+    @Test
+    @DisplayName("여러 샤드의 목록을 id 내림차순으로 합쳐 페이지를 만든다")
+    void mergedListTest() {
+        // when
+        List<PostResponse> first = postService.getList(PostSearch.builder().page(1).size(10).build());
+        List<PostResponse> second = postService.getList(PostSearch.builder().page(2).size(10).build());
+        List<PostResponse> keyset = postService.getList(PostSearch.builder()
+                .size(10)
+                .after(first.get(9).getId())
+                .build());
+
+        // then
+        assertEquals(10, first.size());
+        assertEquals("제목 - 30", first.get(0).getTitle());
+        assertEquals("제목 - 21", first.get(9).getTitle());
+        assertEquals("제목 - 20", second.get(0).getTitle());
+        assertEquals("제목 - 11", second.get(9).getTitle());
+        assertEquals(second.stream().map(PostResponse::getId).toList(),
+                keyset.stream().map(PostResponse::getId).toList());
+    }
+
+    @Test
+    @DisplayName("page x size 가 샤드 한 번 조회 상한(MAX_SIZE)을 넘는 깊은 페이지도 빠짐없이 id 내림차순으로 합친다")
+    void deepPageTest() {
+        // given
+        IntStream.rangeClosed(31, 2600).forEach(i -> shardedPostRepository.save(Post.builder()
+                .title("제목 - " + i)
+                .content("내용 - " + i)
+                .build()));
+        List<Long> ids = IntStream.range(0, 3)
+                .mapToObj(shard -> ShardContext.call(shard, postRepository::findAll))
+                .flatMap(List::stream)
+                .map(Post::getId)
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        // when
+        List<Long> deep = shardedPostRepository.getList(PostSearch.builder().page(25).size(100).build()).stream()
+                .map(Post::getId)
+                .toList();
+        List<Long> last = shardedPostRepository.getList(PostSearch.builder().page(2).size(2000).build()).stream()
+                .map(Post::getId)
+                .toList();
+
+        // then
+        assertEquals(ids.subList(2400, 2500), deep);
+        assertEquals(ids.subList(2000, 2600), last);
+    }
+
+    @Test
+    @DisplayName("조회, 수정, 삭제는 id 가 속한 샤드로 간다")
+    void routeByIdTest() {
+        // given
+        List<Long> ids = shardedPostRepository.getList(PostSearch.builder().page(1).size(3).build()).stream()
+                .map(Post::getId)
+                .toList();
+        assertEquals(3, ids.stream().map(PostIdGenerator::shardOf).distinct().count());
+
+        for (Long id : ids) {
+            // when
+            postService.edit(id, PostEdit.builder().title("수정 - " + id).build());
+
+            // then
+            assertEquals("수정 - " + id, postService.get(id).getTitle());
+
+            postService.delete(id);
+            assertThrows(PostNotFound.class, () -> postService.get(id));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.wondollar.api.revision;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryDeltaTest {
+
+    @Test
+    @DisplayName("차이를 원본에 적용하면 대상이 그대로 복원된다")
+    void roundTripTest() {
+        List<String[]> cases = List.of(
+                new String[]{"", ""},
+                new String[]{"", "새 글"},
+                new String[]{"지울 글", ""},
+                new String[]{"짧은 글", "짧은 글에 조금 더 붙인 글"},
+                new String[]{"a".repeat(100), "b" + "a".repeat(100) + "b"});
+
+        for (String[] pair : cases) {
+            byte[] base = pair[0].getBytes(StandardCharsets.UTF_8);
+            byte[] target = pair[1].getBytes(StandardCharsets.UTF_8);
+
+            assertArrayEquals(target, BinaryDelta.apply(base, BinaryDelta.diff(base, target)));
+        }
+    }
+
+    @Test
+    @DisplayName("긴 본문의 일부만 고치면 차이는 고친 부분 크기 정도다")
+    void compactDeltaTest() {
+        // given
+        String base = randomText(new Random(35), 20_000);
+        String target = base.substring(0, 5_000) + "가운데 한 문장을 고쳤다." + base.substring(5_100, 15_000) + base.substring(15_040);
+
+        // when
+        byte[] delta = RevisionCodec.delta(base, target);
+
+        // then
+        assertTrue(delta.length < 80, "delta = " + delta.length);
+        assertEquals(target, RevisionCodec.apply(base, delta));
+    }
+
+    @Test
+    @DisplayName("스냅숏에 차이를 차례로 적용해 수백 번 고친 본문을 복원한다")
+    void reconstructTest() {
+        // given
+        Random random = new Random(7);
+        String content = randomText(random, 10_000);
+        byte[] snapshot = RevisionCodec.snapshot(content);
+        List<byte[]> deltas = new ArrayList<>();
+
+        for (int i = 0; i < 300; i++) {
+            int from = random.nextInt(content.length());
+            int to = Math.min(content.length(), from + random.nextInt(50));
+            String edited = content.substring(0, from) + "수정 " + i + content.substring(to);
+            deltas.add(RevisionCodec.delta(content, edited));
+            content = edited;
+        }
+
+        // when, then
+        assertEquals(content, RevisionCodec.reconstruct(snapshot, deltas));
+    }
+
+    @Test
+    @DisplayName("길이가 맞지 않는 차이는 적용하지 않는다")
+    void corruptedDeltaTest() {
+        byte[] base = "원본 글".getBytes(StandardCharsets.UTF_8);
+        byte[] delta = BinaryDelta.diff(base, "원본 글 수정".getBytes(StandardCharsets.UTF_8));
+        delta[0]++;
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryDelta.apply(base, delta));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            text.append(random.nextBoolean() ? "가나다라" : "spring ").append(random.nextInt(1000)).append(' ');
+        }
+        return text.substring(0, length);
+    }
+}
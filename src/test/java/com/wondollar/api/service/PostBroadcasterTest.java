@@ -0,0 +1,152 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.response.PostResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostBroadcasterTest {
+
+    private final PostBroadcaster postBroadcaster = new PostBroadcaster(Duration.ofMillis(200), Duration.ofMillis(100));
+
+    @AfterEach
+    void tearDown() {
+        postBroadcaster.close();
+    }
+
+    @Test
+    @DisplayName("전송이 막힌 구독자가 있어도 다른 구독자는 새 글을 받고, 막힌 구독자는 writeTimeout 뒤에 끊긴다")
+    void blockedSubscriberTest() throws Exception {
+        // given
+        BlockingEmitter blocked = new BlockingEmitter();
+        RecordingEmitter healthy = new RecordingEmitter();
+        postBroadcaster.subscribe(blocked, null);
+        postBroadcaster.subscribe(healthy, null);
+
+        // when
+        postBroadcaster.publish(post(1L));
+        postBroadcaster.publish(post(2L));
+
+        // then
+        assertTrue(blocked.entered.await(1, TimeUnit.SECONDS));
+        waitUntil(() -> healthy.dataEvents() == 2);
+
+        Thread.sleep(300);
+        postBroadcaster.checkSubscribers();
+        assertTrue(blocked.interrupted.await(1, TimeUnit.SECONDS));
+        waitUntil(() -> postBroadcaster.getSubscriberCount() == 1);
+    }
+
+    @Test
+    @DisplayName("한동안 보낸 것이 없는 구독자에게 heartbeat 를 보내고, 보내지 못하면 끊는다")
+    void heartbeatTest() throws Exception {
+        // given
+        RecordingEmitter alive = new RecordingEmitter();
+        RecordingEmitter dead = new RecordingEmitter();
+        dead.fail = true;
+        postBroadcaster.subscribe(alive, null);
+        postBroadcaster.subscribe(dead, null);
+
+        // when
+        Thread.sleep(150);
+        postBroadcaster.checkSubscribers();
+
+        // then
+        waitUntil(() -> alive.events.size() == 1);
+        assertTrue(alive.events.get(0).contains(":heartbeat"));
+        waitUntil(() -> postBroadcaster.getSubscriberCount() == 1);
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID 로 다시 붙으면 그 글 id 보다 새 글부터 받고, 이미 받은 글은 다시 받지 않는다")
+    void resumeTest() throws Exception {
+        // given
+        postBroadcaster.publish(post(10L));
+        postBroadcaster.publish(post(30L));
+        postBroadcaster.publish(post(20L));
+        postBroadcaster.publish(post(40L));
+        RecordingEmitter resumed = new RecordingEmitter();
+        RecordingEmitter unknown = new RecordingEmitter();
+
+        // when
+        postBroadcaster.subscribe(resumed, 20L);
+        postBroadcaster.subscribe(unknown, 100L);
+        postBroadcaster.publish(post(15L));
+
+        // then
+        waitUntil(() -> resumed.dataEvents() == 3);
+        assertEquals(List.of("30", "40", "15"), resumed.eventIds());
+        waitUntil(() -> unknown.dataEvents() == 1);
+        assertEquals(List.of("15"), unknown.eventIds());
+    }
+
+    private static PostResponse post(Long id) {
+        return PostResponse.builder()
+                .id(id)
+                .title("제목")
+                .content("내용")
+                .build();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile boolean fail;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail) {
+                throw new IOException("연결이 끊겼습니다.");
+            }
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(item -> event.append(item.getData()));
+            events.add(event.toString());
+        }
+
+        long dataEvents() {
+            return events.stream().filter(event -> event.contains("event:post")).count();
+        }
+
+        List<String> eventIds() {
+            return events.stream()
+                    .filter(event -> event.startsWith("id:"))
+                    .map(event -> event.substring(3, event.indexOf('\n')))
+                    .toList();
+        }
+    }
+
+    private static class BlockingEmitter extends SseEmitter {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IOException("전송이 중단되었습니다.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.repository.PostRepository;
+import com.wondollar.api.request.PostCreate;
+import com.wondollar.api.request.PostEdit;
+import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.wondollar.api.support.QueryCounter.assertQueryCount;
+
+@ActiveProfiles("perf")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query-count;QUERY_CACHE_SIZE=128")
+@Import(QueryCounter.class)
+class PostServiceQueryCountTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @BeforeEach
+    void clean() {
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("글 작성은 insert 한 번으로 끝난다")
+    void writeQueryCountTest() {
+        PostCreate postCreate = PostCreate.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build();
+
+        assertQueryCount(1, () -> postService.write(postCreate));
+    }
+
+    @Test
+    @DisplayName("글 1개 조회는 태그까지 쿼리 한 번으로 가져온다")
+    void getQueryCountTest() {
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .tags(List.of("java", "spring"))
+                .build());
+
+        assertQueryCount(1, () -> postService.get(post.getId()));
+    }
+
+    @Test
+    @DisplayName("글 목록 조회는 글 목록 + 태그 배치 로딩 두 번이다")
+    void getListQueryCountTest() {
+        postRepository.saveAll(IntStream.range(1, 31)
+                .mapToObj(i -> Post.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .tags(List.of("tag" + i % 3))
+                        .build())
+                .toList());
+
+        PostSearch postSearch = PostSearch.builder()
+                .page(1)
+                .size(10)
+                .build();
+
+        assertQueryCount(2, () -> postService.getList(postSearch));
+    }
+
+    @Test
+    @DisplayName("첫 수정은 select 한 번, update 한 번, 수정 전후 리비전 insert 배치 한 번이다")
+    void editQueryCountTest() {
+        Post post = postRepository.save(Post.builder()
+                .title("김완수")
+                .content("백엔드")
+                .tags(List.of("java"))
+                .build());
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("강원")
+                .content("백엔드")
+                .build();
+
+        assertQueryCount(3, () -> postService.edit(post.getId(), postEdit));
+    }
+
+    @Test
+    @DisplayName("글 삭제는 select 한 번, 리비전 delete 한 번, 태그 delete 한 번, 글 delete 한 번이다")
+    void deleteQueryCountTest() {
+        Post post = postRepository.save(Post.builder()
+                .title("김완수")
+                .content("백엔드")
+                .tags(List.of("java"))
+                .build());
+
+        assertQueryCount(4, () -> postService.delete(post.getId()));
+    }
+}
@@ -2,17 +2,22 @@ package com.wondollar.api.service;
 
 import com.wondollar.api.domain.Post;
 import com.wondollar.api.exception.PostNotFound;
+import com.wondollar.api.exception.RevisionNotFound;
 import com.wondollar.api.repository.PostRepository;
+import com.wondollar.api.repository.ShardedPostRepository;
 import com.wondollar.api.request.PostCreate;
 import com.wondollar.api.request.PostEdit;
 import com.wondollar.api.request.PostSearch;
+import com.wondollar.api.request.TagMatch;
 import com.wondollar.api.response.PostResponse;
+import com.wondollar.api.response.PostRevisionSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -27,9 +32,19 @@ class PostServiceTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private PostRevisionService postRevisionService;
+
+    @Autowired
+    private ShardedPostRepository shardedPostRepository;
+
+    @Autowired
+    private TagIndex tagIndex;
+
     @BeforeEach
     void clean() {
         postRepository.deleteAll();
+        tagIndex.load();
     }
 
     @Test
@@ -250,4 +265,242 @@ class PostServiceTest {
             postService.edit(post.getId() + 1L, postEdit);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("태그 하나로 글 목록 조회")
+    void searchPostListByTagTest() {
+        // given
+        IntStream.range(1, 31)
+                .forEach(i -> postService.write(PostCreate.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .tags(i % 2 == 0 ? List.of("Java") : List.of("spring"))
+                        .build()));
+
+        PostSearch postSearch = PostSearch.builder()
+                .page(1)
+                .size(5)
+                .tags(List.of("java"))
+                .build();
+
+        // when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        // then
+        assertEquals(5, posts.size());
+        assertEquals("제목 - 30", posts.get(0).getTitle());
+        assertEquals("제목 - 22", posts.get(4).getTitle());
+        assertEquals(List.of("java"), posts.get(0).getTags());
+    }
+
+    @Test
+    @DisplayName("여러 태그를 모두 가진 글만 조회")
+    void searchPostListByAllTagsTest() {
+        // given
+        IntStream.range(1, 31)
+                .forEach(i -> postService.write(PostCreate.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .tags(i % 3 == 0 ? List.of("java", "spring") : List.of("java"))
+                        .build()));
+
+        PostSearch postSearch = PostSearch.builder()
+                .page(1)
+                .size(20)
+                .tags(List.of("java", "spring"))
+                .match(TagMatch.ALL)
+                .build();
+
+        // when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        // then
+        assertEquals(10, posts.size());
+        assertEquals("제목 - 30", posts.get(0).getTitle());
+        assertEquals("제목 - 3", posts.get(9).getTitle());
+    }
+
+    @Test
+    @DisplayName("여러 태그 중 하나라도 가진 글을 이전 페이지 마지막 id 이후부터 조회")
+    void searchPostListByAnyTagAfterTest() {
+        // given
+        IntStream.range(1, 31)
+                .forEach(i -> postService.write(PostCreate.builder()
+                        .title("제목 - " + i)
+                        .content("내용 - " + i)
+                        .tags(List.of(i % 3 == 0 ? "java" : i % 3 == 1 ? "spring" : "jpa"))
+                        .build()));
+
+        List<PostResponse> firstPage = postService.getList(PostSearch.builder()
+                .size(5)
+                .tags(List.of("java", "spring"))
+                .match(TagMatch.ANY)
+                .build());
+
+        // when
+        List<PostResponse> secondPage = postService.getList(PostSearch.builder()
+                .size(5)
+                .tags(List.of("java", "spring"))
+                .match(TagMatch.ANY)
+                .after(firstPage.get(4).getId())
+                .build());
+
+        // then
+        assertEquals("제목 - 30", firstPage.get(0).getTitle());
+        assertEquals("제목 - 24", firstPage.get(4).getTitle());
+        assertEquals("제목 - 22", secondPage.get(0).getTitle());
+        assertEquals("제목 - 16", secondPage.get(4).getTitle());
+    }
+
+    @Test
+    @DisplayName("여러 태그를 함께 가진 글도 하나라도 가진 글 목록의 다음 페이지에 한 번만 나온다")
+    void searchPostListByAnyTagPageTest() {
+        // given
+        IntStream.range(1, 31)
+                .forEach(i -> {
+                    List<String> tags = new ArrayList<>();
+                    if (i % 2 == 0) {
+                        tags.add("java");
+                    }
+                    if (i % 3 == 0) {
+                        tags.add("spring");
+                    }
+                    postService.write(PostCreate.builder()
+                            .title("제목 - " + i)
+                            .content("내용 - " + i)
+                            .tags(tags.isEmpty() ? List.of("jpa") : tags)
+                            .build());
+                });
+
+        PostSearch postSearch = PostSearch.builder()
+                .page(2)
+                .size(5)
+                .tags(List.of("java", "spring"))
+                .match(TagMatch.ANY)
+                .build();
+
+        // when
+        List<PostResponse> posts = postService.getList(postSearch);
+
+        // then
+        assertEquals(List.of("제목 - 22", "제목 - 21", "제목 - 20", "제목 - 18", "제목 - 16"),
+                posts.stream().map(PostResponse::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("글 태그 수정")
+    void postUpdateTagsTest() {
+        // given
+        postService.write(PostCreate.builder()
+                .title("김완수")
+                .content("백엔드")
+                .tags(List.of("java"))
+                .build());
+        Post post = postRepository.findAll().get(0);
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("김완수")
+                .content("백엔드")
+                .tags(List.of("kotlin", "spring"))
+                .build();
+
+        // when
+        postService.edit(post.getId(), postEdit);
+
+        // then
+        List<PostResponse> posts = postService.getList(PostSearch.builder()
+                .size(10)
+                .tags(List.of("kotlin", "spring"))
+                .build());
+        assertEquals(1, posts.size());
+        assertEquals(List.of("kotlin", "spring"), posts.get(0).getTags());
+        assertTrue(postService.getList(PostSearch.builder()
+                .size(10)
+                .tags(List.of("java"))
+                .build()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("글 수정이 롤백되면 태그 인덱스도 바뀌지 않는다")
+    void postUpdateTagsRollbackTest() {
+        // given
+        postService.write(PostCreate.builder()
+                .title("김완수")
+                .content("백엔드")
+                .tags(List.of("java", "spring"))
+                .build());
+        Post post = postRepository.findAll().get(0);
+
+        PostEdit postEdit = PostEdit.builder()
+                .title("김완수")
+                .content("백엔드")
+                .tags(List.of("kotlin", "jpa"))
+                .build();
+
+        // when
+        assertThrows(IllegalStateException.class, () -> shardedPostRepository.inTransaction(post.getId(), () -> {
+            postService.edit(post.getId(), postEdit);
+            throw new IllegalStateException("롤백");
+        }));
+
+        // then
+        assertTrue(postService.getList(PostSearch.builder()
+                .size(10)
+                .tags(List.of("kotlin", "jpa"))
+                .build()).isEmpty());
+        assertEquals(1, postService.getList(PostSearch.builder()
+                .size(10)
+                .tags(List.of("java", "spring"))
+                .build()).size());
+    }
+
+    @Test
+    @DisplayName("글을 여러 번 수정하면 스냅숏 간격을 넘어서도 모든 리비전을 복원할 수 있다")
+    void revisionHistoryTest() {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("제목 - 0")
+                .content("본문 " + "긴 내용 ".repeat(200))
+                .build());
+
+        List<String> contents = new ArrayList<>();
+        contents.add(post.getContent());
+        for (int i = 1; i <= 40; i++) {
+            String content = contents.get(i - 1).replaceFirst("긴 내용", "고친 내용 " + i);
+            postService.edit(post.getId(), PostEdit.builder()
+                    .title("제목 - " + i)
+                    .content(content)
+                    .build());
+            contents.add(content);
+        }
+
+        // when
+        List<PostRevisionSummary> revisions = postRevisionService.getRevisions(post.getId());
+
+        // then
+        assertEquals(41, revisions.size());
+        assertEquals(40, revisions.get(0).getRevision());
+        assertEquals("제목 - 40", revisions.get(0).getTitle());
+        for (int i = 0; i <= 40; i++) {
+            assertEquals(contents.get(i), postRevisionService.getRevision(post.getId(), i).getContent());
+            assertEquals("제목 - " + i, postRevisionService.getRevision(post.getId(), i).getTitle());
+        }
+        assertThrows(RevisionNotFound.class, () -> postRevisionService.getRevision(post.getId(), 41));
+    }
+
+    @Test
+    @DisplayName("리비전 목록 조회 - 수정한 적 없는 글은 빈 목록, 존재하지 않는 글은 예외")
+    void revisionsOfMissingPostTest() {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("foo")
+                .content("bar")
+                .build());
+
+        // when, then
+        assertEquals(List.of(), postService.getRevisions(post.getId()));
+        assertThrows(PostNotFound.class, () -> {
+            postService.getRevisions(post.getId() + 1L);
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.repository.PostRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ActiveProfiles("perf")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:perf-view-count")
+class ViewCounterPerfProfileTest {
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Test
+    @DisplayName("운영 성능 프로필에서도 트랜잭션 밖의 조회수 반영이 롤백되지 않고 DB 에 남는다")
+    void flushAllPersistsViewsTest() {
+        // given
+        Post post = postRepository.save(Post.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build());
+        postService.get(post.getId());
+        postService.get(post.getId());
+
+        // when
+        viewCounter.flushAll();
+
+        // then
+        assertEquals(2, postRepository.findById(post.getId()).orElseThrow().getViews());
+    }
+}
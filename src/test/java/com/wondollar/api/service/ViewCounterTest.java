@@ -0,0 +1,149 @@
+package com.wondollar.api.service;
+
+import com.wondollar.api.cache.PostCache;
+import com.wondollar.api.domain.Post;
+import com.wondollar.api.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ViewCounterTest {
+
+    @Autowired
+    private ViewCounter viewCounter;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCache postCache;
+
+    @BeforeEach
+    void clean() {
+        viewCounter.flushAll();
+        postRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("글 조회 시 조회수가 올라가고 flush 후 DB 에 반영된다")
+    void getIncrementsViewsTest() {
+        // given
+        Post post = savePost();
+
+        // when
+        postService.get(post.getId());
+        long views = postService.get(post.getId()).getViews();
+        viewCounter.flush();
+
+        // then
+        assertEquals(2, views);
+        assertEquals(2, findViews(post));
+        assertEquals(0, viewCounter.getPending(post.getId()));
+        assertEquals(3, postService.get(post.getId()).getViews());
+    }
+
+    @Test
+    @DisplayName("flush 는 캐시된 글에 조회수를 더하지 않고 지워서, 다음 조회가 DB 조회수를 읽는다")
+    void flushEvictsCachedPostTest() {
+        // given
+        Post post = savePost();
+        postService.get(post.getId());
+        assertTrue(postCache.get(post.getId()).isPresent());
+
+        // when
+        viewCounter.flush();
+
+        // then
+        assertTrue(postCache.get(post.getId()).isEmpty());
+        assertEquals(2, postService.get(post.getId()).getViews());
+    }
+
+    @Test
+    @DisplayName("조회와 flush 가 동시에 일어나도 조회수를 잃지 않는다")
+    void concurrentFlushTest() throws Exception {
+        // given
+        Post post = savePost();
+        int threads = 8;
+        int viewsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                viewCounter.flush();
+            }
+        });
+        flusher.start();
+
+        // when
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < viewsPerThread; j++) {
+                    viewCounter.increment(post.getId());
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        running.set(false);
+        flusher.join();
+        viewCounter.flushAll();
+
+        // then
+        assertEquals((long) threads * viewsPerThread, findViews(post));
+    }
+
+    @Test
+    @DisplayName("한동안 조회가 없어 정리된 카운터와 종료 시점의 조회수도 모두 반영된다")
+    void retiredCounterAndShutdownTest() {
+        // given
+        Post post = savePost();
+        viewCounter.increment(post.getId());
+        viewCounter.flush();
+        viewCounter.flush();
+        viewCounter.increment(post.getId());
+        viewCounter.increment(post.getId());
+
+        // when
+        viewCounter.flushAll();
+
+        // then
+        assertEquals(3, findViews(post));
+        assertEquals(0, viewCounter.getPending(post.getId()));
+    }
+
+    private Post savePost() {
+        return postRepository.save(Post.builder()
+                .title("제목입니다.")
+                .content("내용입니다.")
+                .build());
+    }
+
+    private long findViews(Post post) {
+        return postRepository.findById(post.getId())
+                .orElseThrow(() -> new RuntimeException("글이 존재하지 않습니다. id = " + post.getId()))
+                .getViews();
+    }
+}
@@ -0,0 +1,118 @@
+package com.wondollar.api.support;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * DataSource 를 감싸 현재 스레드에서 실제로 실행된 쿼리를 센다.
+ * 문장을 준비한 횟수가 아니라 execute 호출 횟수를 세며, 배치는 executeBatch 한 번을 한 번으로 센다.
+ * 쓰려면 테스트에 @Import(QueryCounter.class) 를 붙인다.
+ */
+public class QueryCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<List<String>> EXECUTED = new ThreadLocal<>();
+
+    public static void assertQueryCount(int expected, Runnable action) {
+        List<String> previous = EXECUTED.get();
+        List<String> executed = new ArrayList<>();
+        EXECUTED.set(executed);
+        try {
+            action.run();
+        } finally {
+            EXECUTED.set(previous);
+        }
+
+        assertEquals(expected, executed.size(),
+                () -> "실행된 쿼리 수가 다릅니다.\n" + String.join("\n", executed));
+    }
+
+    // 다른 빈이 구체 타입(ShardRoutingDataSource)으로 주입받으므로 클래스 기반 프록시로 감싼다.
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Object result = invocation.proceed();
+            return result instanceof Connection connection ? countingConnection(connection) : result;
+        });
+        return proxyFactory.getProxy();
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, (method, args) -> {
+            Object result = invoke(method, connection, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String prepared ? prepared : null;
+                return countingStatement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static Statement countingStatement(Statement statement, String preparedSql) {
+        List<String> batch = new ArrayList<>();
+        return proxy(statementType(statement), (method, args) -> {
+            String name = method.getName();
+            String sql = args != null && args.length > 0 && args[0] instanceof String given ? given : preparedSql;
+            if (name.equals("addBatch")) {
+                batch.add(sql);
+            } else if (name.equals("clearBatch")) {
+                batch.clear();
+            } else if (name.startsWith("execute")) {
+                List<String> executed = EXECUTED.get();
+                boolean isBatch = name.endsWith("Batch");
+                if (executed != null) {
+                    executed.add(isBatch ? "batch(" + batch.size() + ") " + (batch.isEmpty() ? sql : batch.get(0)) : sql);
+                }
+                if (isBatch) {
+                    batch.clear();
+                }
+            }
+            return invoke(method, statement, args);
+        });
+    }
+
+    // Hibernate 가 PreparedStatement, CallableStatement 로 다루므로 같은 인터페이스로 감싼다.
+    private static Class<? extends Statement> statementType(Statement statement) {
+        if (statement instanceof CallableStatement) {
+            return CallableStatement.class;
+        }
+        return statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<? extends T> type, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(method, args);
+        return (T) Proxy.newProxyInstance(QueryCounter.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args) throws Throwable;
+    }
+}